@@ -0,0 +1,175 @@
+package com.example.demo.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+// ------------------------------------------------------------
+// 負荷試験用のデータ投入
+//   ・Book：日本語 / 英語が混ざったタイトル、著者は Zipf 分布（一部の著者に冊数が集中する）
+//           作成日時は過去 5 年に散らし、直近ほど多くなるように偏らせる
+//   ・AppUser：loaduser0, loaduser1, ...（パスワードはすべて "password"。既にいるユーザーは飛ばす）
+//   ・JDBC のバッチ INSERT で投入する（PostgreSQL では URL に reWriteBatchedInserts=true を付けると速い）
+//
+//   ※ テーブルはアプリの起動時（ddl-auto）に作られるので、先に一度アプリを起動しておくこと
+// ------------------------------------------------------------
+final class DataSeeder {
+
+    // readme.txt と同じ "password" の BCrypt ハッシュ
+    static final String PASSWORD_HASH = "$2a$10$p.y.tUK5TSEG8qI10QzfsuvJLlMV4cAocdBudnfQwtdkUEowTG2ui";
+    static final String USER_PREFIX = "loaduser";
+
+    private static final int BATCH = 1_000;         // executeBatch の単位
+    private static final int COMMIT_EVERY = 20_000; // コミットの単位
+    private static final double ZIPF_S = 1.1;       // Zipf 分布の偏り（大きいほど上位に集中）
+
+    // ---- タイトル・著者名の材料 ----
+    private static final String[] JA_WORDS = {
+            "入門", "実践", "基礎", "応用", "徹底解説", "完全ガイド", "はじめての", "図解", "現場で使える",
+            "プログラミング", "データベース", "設計", "アルゴリズム", "ネットワーク", "セキュリティ",
+            "機械学習", "統計", "経営", "マーケティング", "歴史", "小説", "料理", "旅行", "写真", "物語"};
+    private static final String[] EN_WORDS = {
+            "Java", "Spring", "Effective", "Modern", "Practical", "Patterns", "Design", "Systems",
+            "Distributed", "Concurrency", "Performance", "Data", "Cloud", "Architecture", "Clean",
+            "Code", "Testing", "Refactoring", "Algorithms", "Networks", "Security", "Learning", "History"};
+    private static final String[] JA_FAMILY = {"佐藤", "鈴木", "高橋", "田中", "伊藤", "渡辺", "山本", "中村", "小林", "加藤"};
+    private static final String[] JA_GIVEN = {"太郎", "花子", "健", "美咲", "翔", "陽菜", "大輔", "さくら", "拓也", "結衣"};
+    private static final String[] EN_GIVEN = {"John", "Mary", "James", "Linda", "Robert", "Susan", "Michael", "Karen", "David", "Emma"};
+    private static final String[] EN_FAMILY = {"Smith", "Johnson", "Brown", "Taylor", "Miller", "Wilson", "Moore", "Clark", "Lewis", "Young"};
+
+    private final Options opts;
+    private final SplittableRandom random = new SplittableRandom(42); // 毎回同じデータになるよう固定
+
+    DataSeeder(Options opts) {
+        this.opts = opts;
+    }
+
+    void seed() throws Exception {
+        long books = opts.getLong("books", 1_000_000);
+        int users = opts.getInt("users", 100);
+        int authors = opts.getInt("authors", 20_000);
+
+        try (Connection con = DriverManager.getConnection(opts.jdbcUrl(), opts.dbUser(), opts.dbPassword())) {
+            con.setAutoCommit(false);
+            seedUsers(con, users);
+            seedBooks(con, books, authorNames(authors));
+        }
+    }
+
+    // 既にいるユーザーは飛ばす（username は一意なので、seed を再実行しても失敗しないように）
+    private void seedUsers(Connection con, int users) throws Exception {
+        Set<String> existing = new HashSet<>();
+        try (PreparedStatement ps = con.prepareStatement("SELECT username FROM users WHERE username LIKE ?")) {
+            ps.setString(1, USER_PREFIX + "%");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) existing.add(rs.getString(1));
+            }
+        }
+
+        int inserted = 0;
+        String sql = "INSERT INTO users (username, password, role, enabled) VALUES (?, ?, 'ROLE_USER', true)";
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 0; i < users; i++) {
+                if (existing.contains(USER_PREFIX + i)) continue;
+                ps.setString(1, USER_PREFIX + i);
+                ps.setString(2, PASSWORD_HASH);
+                ps.addBatch();
+                inserted++;
+            }
+            ps.executeBatch();
+        }
+        con.commit();
+        System.out.printf("users: %d inserted, %d already present%n", inserted, users - inserted);
+    }
+
+    private void seedBooks(Connection con, long books, String[] authors) throws Exception {
+        double[] cumulative = zipfCumulative(authors.length);
+        LocalDateTime now = LocalDateTime.now();
+        long fiveYearsMinutes = 5L * 365 * 24 * 60;
+        long started = System.nanoTime();
+
+        String sql = "INSERT INTO book (title, author, price, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (long i = 1; i <= books; i++) {
+                // 作成日時：u^2 で直近側に寄せる（0 に近いほど新しい）
+                double u = random.nextDouble();
+                LocalDateTime created = now.minusMinutes((long) (u * u * fiveYearsMinutes));
+                LocalDateTime updated = random.nextInt(10) == 0
+                        ? created.plusMinutes(random.nextLong(1, 60L * 24 * 90))
+                        : created;
+                if (updated.isAfter(now)) updated = now;
+
+                ps.setString(1, title());
+                ps.setString(2, authors[zipf(cumulative)]);
+                if (random.nextInt(20) == 0) ps.setNull(3, java.sql.Types.INTEGER); // 価格未定
+                else ps.setInt(3, 500 + random.nextInt(60) * 100);
+                ps.setTimestamp(4, Timestamp.valueOf(created));
+                ps.setTimestamp(5, Timestamp.valueOf(updated));
+                ps.addBatch();
+
+                if (i % BATCH == 0) ps.executeBatch();
+                if (i % COMMIT_EVERY == 0) {
+                    con.commit();
+                    double sec = (System.nanoTime() - started) / 1e9;
+                    System.out.printf("books: %,d / %,d (%.0f rows/s)%n", i, books, i / sec);
+                }
+            }
+            ps.executeBatch();
+        }
+        con.commit();
+        System.out.printf("books: %,d inserted in %.1f s%n", books, (System.nanoTime() - started) / 1e9);
+    }
+
+    // 日本語 6 割・英語 4 割のタイトル
+    private String title() {
+        if (random.nextInt(10) < 6) {
+            return pick(JA_WORDS) + pick(JA_WORDS) + " " + pick(EN_WORDS) + " 第" + (1 + random.nextInt(5)) + "版";
+        }
+        return pick(EN_WORDS) + " " + pick(EN_WORDS) + " " + pick(EN_WORDS) + ", " + (1 + random.nextInt(5)) + "th Edition";
+    }
+
+    // 著者名（日本人名・英語名を交互に作り、重複しないよう番号を付ける）
+    private String[] authorNames(int n) {
+        String[] names = new String[n];
+        for (int i = 0; i < n; i++) {
+            names[i] = (i % 2 == 0)
+                    ? pick(JA_FAMILY) + pick(JA_GIVEN) + i
+                    : pick(EN_GIVEN) + " " + pick(EN_FAMILY) + " " + i;
+        }
+        return names;
+    }
+
+    // Zipf 分布（k 番目の著者の重み = 1 / k^s）の累積分布
+    private static double[] zipfCumulative(int n) {
+        double[] c = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, ZIPF_S);
+            c[k] = sum;
+        }
+        for (int k = 0; k < n; k++) c[k] /= sum;
+        return c;
+    }
+
+    // 累積分布を二分探索して著者のインデックスを選ぶ
+    private int zipf(double[] cumulative) {
+        double u = random.nextDouble();
+        int lo = 0, hi = cumulative.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] < u) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private String pick(String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+}
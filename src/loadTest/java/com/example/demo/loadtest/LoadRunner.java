@@ -0,0 +1,192 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// ------------------------------------------------------------
+// 負荷の実行と計測（オープンループ）
+//
+//   ・リクエストは「予定時刻」（開始時刻 + i / rate）に必ず投げる
+//     応答を待ってから次を投げる（クローズドループ）と、サーバーが詰まったときに
+//     負荷も一緒に下がり、遅延が過小評価される（Coordinated Omission）ため
+//   ・遅延は「予定時刻 → 応答完了」で測る（送信が遅れた分も遅延に含める）
+//   ・1 リクエスト = 1 仮想スレッド。同時実行数の上限で負荷が頭打ちにならない
+//   ・操作ごとに HDR ヒストグラムへ記録し、p50 / p99 / p99.9 とスループットを出す
+// ------------------------------------------------------------
+final class LoadRunner {
+
+    // 操作の種類（WRITE は既存の Book の更新、CREATE は 1 件ずつの作成 = グループコミットの対象）
+    enum Op { READ, GET, SEARCH, WRITE, CREATE }
+
+    private static final String[] SEARCH_WORDS = {"入門", "実践", "Java", "Spring", "Design", "データ", "History"};
+    private static final String[] SORTS = {"createdAt,desc", "title,asc", "price,asc", "price,desc"};
+
+    private final Options opts;
+    private final Map<Op, ConcurrentHistogram> histograms = new EnumMap<>(Op.class);
+    private final Map<Op, LongAdder> errors = new EnumMap<>(Op.class);
+
+    LoadRunner(Options opts) {
+        this.opts = opts;
+        for (Op op : Op.values()) {
+            histograms.put(op, new ConcurrentHistogram(3)); // 有効桁 3 桁・自動拡張
+            errors.put(op, new LongAdder());
+        }
+    }
+
+    void run() throws Exception {
+        String baseUrl = opts.get("base-url", "http://localhost:8080");
+        int users = opts.getInt("users", 50);
+        int rate = opts.getInt("rate", 200);
+        int duration = opts.getInt("duration", 60);
+        int warmup = opts.getInt("warmup", 10);
+        int[] mix = parseMix(opts.get("mix", "50:30:15:3:2"));
+        long maxId = opts.getLong("max-id", -1);
+        if (maxId < 0) maxId = queryMaxId();
+
+        // ---- ログイン（ユーザーごとにセッションを作る） ----
+        List<SessionClient> sessions = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            SessionClient c = new SessionClient(baseUrl);
+            c.login(DataSeeder.USER_PREFIX + i, "password");
+            sessions.add(c);
+        }
+        System.out.printf("logged in %d users, max id %d, rate %d/s, warmup %ds, duration %ds%n",
+                users, maxId, rate, warmup, duration);
+
+        // ---- 予定時刻どおりに投げ続ける ----
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * (warmup + duration);
+        long measuredFrom = (long) rate * warmup;   // ここから先のリクエストだけ記録する
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * interval;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+
+                SessionClient session = sessions.get((int) (i % users));
+                Op op = pick(mix);
+                boolean record = i >= measuredFrom;
+                long finalMaxId = maxId;
+                executor.execute(() -> execute(session, op, intended, record, finalMaxId));
+            }
+        } // close() で全リクエストの完了を待つ
+
+        report(duration);
+    }
+
+    // 1 リクエストを実行し、予定時刻からの遅延を記録する
+    private void execute(SessionClient s, Op op, long intended, boolean record, long maxId) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        int status;
+        try {
+            status = switch (op) {
+                case READ -> s.get("/api/books?page=" + r.nextInt(50) + "&size=20&sort=" + SORTS[r.nextInt(SORTS.length)]);
+                case GET -> s.get("/api/books/" + (1 + r.nextLong(Math.max(1, maxId))));
+                // 複合条件検索（キーワード + 半分は価格帯も指定。ファセット件数も集計される）
+                case SEARCH -> s.get("/api/books/search?size=20&q=" + java.net.URLEncoder.encode(
+                        SEARCH_WORDS[r.nextInt(SEARCH_WORDS.length)], java.nio.charset.StandardCharsets.UTF_8)
+                        + (r.nextBoolean() ? "&minPrice=" + (500 + r.nextInt(30) * 100) + "&maxPrice=6500" : ""));
+                case WRITE -> s.send("PATCH", "/api/books/" + (1 + r.nextLong(Math.max(1, maxId))),
+                        "{\"price\":" + (500 + r.nextInt(50) * 100) + "}");
+                // app.create-batching.enabled の有無で比べる（まとめられた件数は book.create.batch.size）
+                case CREATE -> s.send("POST", "/api/books",
+                        "{\"title\":\"負荷試験 Load Test " + r.nextInt(1_000_000) + "\",\"author\":\"Load Tester\",\"price\":"
+                                + (500 + r.nextInt(50) * 100) + "}");
+            };
+        } catch (Exception e) {
+            status = -1;
+        }
+        if (!record) return;
+
+        histograms.get(op).recordValue(System.nanoTime() - intended);
+        // 404 は削除済み ID を引いた場合があるのでエラーに数えない
+        if (status < 200 || (status >= 300 && status != 404)) errors.get(op).increment();
+    }
+
+    // 結果の出力（コンソール + 操作ごとの .hgrm ファイル）
+    private void report(int duration) throws Exception {
+        File out = new File(opts.get("out", "build/loadtest"));
+        out.mkdirs();
+
+        Histogram all = new Histogram(3);
+        System.out.printf("%n%-7s %9s %9s %9s %9s %9s %9s %7s%n",
+                "op", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Op op : Op.values()) {
+            Histogram h = histograms.get(op);
+            all.add(h);
+            print(op.name(), h, duration, errors.get(op).sum());
+            try (PrintStream ps = new PrintStream(new File(out, op.name().toLowerCase() + ".hgrm"))) {
+                h.outputPercentileDistribution(ps, 1_000_000.0); // ナノ秒 → ミリ秒
+            }
+        }
+        long totalErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        print("ALL", all, duration, totalErrors);
+        try (PrintStream ps = new PrintStream(new File(out, "all.hgrm"))) {
+            all.outputPercentileDistribution(ps, 1_000_000.0);
+        }
+        System.out.println("histograms written to " + out.getPath());
+    }
+
+    private static void print(String label, Histogram h, int duration, long errors) {
+        System.out.printf("%-7s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                label, h.getTotalCount(), (double) h.getTotalCount() / duration,
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)),
+                ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()), errors);
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // "50:30:15:3:2" → 累積の比率 [50, 80, 95, 98, 100]
+    private static int[] parseMix(String mix) {
+        String[] parts = mix.split(":");
+        if (parts.length != Op.values().length) {
+            throw new IllegalArgumentException("--mix must be read:get:search:write:create");
+        }
+        int[] cumulative = new int[parts.length];
+        int sum = 0;
+        for (int i = 0; i < parts.length; i++) {
+            sum += Integer.parseInt(parts[i]);
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    private static Op pick(int[] cumulative) {
+        int r = ThreadLocalRandom.current().nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (r < cumulative[i]) return Op.values()[i];
+        }
+        return Op.READ;
+    }
+
+    // GET /api/books/{id} の ID 範囲を DB から決める
+    private long queryMaxId() throws Exception {
+        try (Connection con = DriverManager.getConnection(opts.jdbcUrl(), opts.dbUser(), opts.dbPassword());
+             Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 1) FROM book")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.loadtest;
+
+// ------------------------------------------------------------
+// 負荷試験ツールの入口
+//
+//   seed : DB に Book と AppUser（ログイン用ユーザー）を大量投入する
+//   run  : 投入済みのユーザーでフォームログインし、/api/books に目標レートで負荷をかける
+//   wire : 一覧のレスポンスを形式（JSON / CBOR / Smile、通常 / コンパクト表示）ごとに取得し、
+//          サイズとクライアント側のデコード時間を比べる
+//
+//   共通オプション（--key=value 形式）
+//     --jdbc-url     既定: jdbc:h2:file:./build/loadtest/appdb;AUTO_SERVER=TRUE
+//                    （アプリを loadtest プロファイルで起動すると同じ DB を使う）
+//     --db-user      既定: sa
+//     --db-password  既定: (空)
+//
+//   seed のオプション
+//     --books        投入する Book の件数（既定: 1000000）
+//     --users        投入するユーザー数（既定: 100。ユーザー名 loaduser0〜、パスワード "password"）
+//     --authors      著者の人数（既定: 20000。冊数は Zipf 分布で偏らせる）
+//
+//   run のオプション
+//     --base-url     既定: http://localhost:8080
+//     --users        ログインするユーザー数（既定: 50）
+//     --rate         1 秒あたりのリクエスト数（既定: 200）
+//     --duration     計測する秒数（既定: 60）
+//     --warmup       計測前のウォームアップ秒数（既定: 10）
+//     --mix          read:get:search:write:create の比率（既定: 50:30:15:3:2）
+//                    write は PATCH（既存の Book の更新）、create は POST /api/books
+//     --max-id       GET /api/books/{id} で使う ID の上限（既定: DB の max(id) を使う）
+//     --out          HDR ヒストグラムの出力先（既定: build/loadtest）
+//
+//   wire のオプション
+//     --base-url     既定: http://localhost:8080
+//     --size         1 ページの件数（既定: 100）
+//     --rounds       デコード時間の計測回数（既定: 2000）
+// ------------------------------------------------------------
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: LoadTestMain seed|run|wire [--key=value ...]");
+            System.exit(2);
+        }
+        Options opts = Options.parse(args);
+
+        switch (args[0]) {
+            case "seed" -> new DataSeeder(opts).seed();
+            case "run" -> new LoadRunner(opts).run();
+            case "wire" -> new WireFormatBench(opts).run();
+            default -> {
+                System.err.println("unknown command: " + args[0]);
+                System.exit(2);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// ------------------------------------------------------------
+// コマンドライン引数（--key=value）の簡易パーサー
+// ------------------------------------------------------------
+final class Options {
+
+    static final String DEFAULT_JDBC_URL = "jdbc:h2:file:./build/loadtest/appdb;AUTO_SERVER=TRUE";
+
+    private final Map<String, String> values;
+
+    private Options(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static Options parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--")) continue;
+            int eq = a.indexOf('=');
+            if (eq < 0) values.put(a.substring(2), "true");
+            else values.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        return new Options(values);
+    }
+
+    String get(String key, String def) {
+        return values.getOrDefault(key, def);
+    }
+
+    int getInt(String key, int def) {
+        String v = values.get(key);
+        return v == null ? def : Integer.parseInt(v);
+    }
+
+    long getLong(String key, long def) {
+        String v = values.get(key);
+        return v == null ? def : Long.parseLong(v);
+    }
+
+    String jdbcUrl() { return get("jdbc-url", DEFAULT_JDBC_URL); }
+    String dbUser() { return get("db-user", "sa"); }
+    String dbPassword() { return get("db-password", ""); }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// ------------------------------------------------------------
+// ログイン済みのユーザー 1 人分の HTTP クライアント
+//   ブラウザと同じ手順でフォームログインする（SecurityConfig の formLogin）
+//     ① GET  /login  → hidden の _csrf トークンを取り出す
+//     ② POST /login  → username / password / _csrf をフォーム送信（成功すると /home へ 302）
+//     ③ GET  /home   → <meta name="_csrf"> から API 用の CSRF トークンとヘッダ名を取り出す
+//   以降の POST / PATCH は、画面の JavaScript と同じく CSRF ヘッダを付けて送る
+// ------------------------------------------------------------
+final class SessionClient {
+
+    private static final Pattern HIDDEN_CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern META_TOKEN = Pattern.compile("<meta name=\"_csrf\" content=\"([^\"]+)\"");
+    private static final Pattern META_HEADER = Pattern.compile("<meta name=\"_csrf_header\" content=\"([^\"]+)\"");
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private String csrfHeader;
+    private String csrfToken;
+
+    SessionClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        // ユーザーごとに CookieManager を分ける（= セッションが別になる）
+        this.http = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    void login(String username, String password) throws IOException, InterruptedException {
+        // ① ログイン画面から CSRF トークンを取得
+        String loginPage = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        String formToken = find(HIDDEN_CSRF, loginPage, "login form _csrf");
+
+        // ② フォームログイン
+        String form = "username=" + enc(username) + "&password=" + enc(password) + "&_csrf=" + enc(formToken);
+        HttpResponse<Void> res = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String location = res.headers().firstValue("Location").orElse("");
+        if (res.statusCode() != 302 || location.contains("error")) {
+            throw new IOException("login failed for " + username + " (status " + res.statusCode() + ", " + location + ")");
+        }
+
+        // ③ ログイン後のセッションに紐づく CSRF トークンを画面から取得
+        String home = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/home")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        csrfToken = find(META_TOKEN, home, "meta _csrf");
+        csrfHeader = find(META_HEADER, home, "meta _csrf_header");
+    }
+
+    // GET してステータスコードを返す（本文は読み捨てる）
+    int get(String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Accept を指定して GET し、本文のバイト列を返す（2xx 以外は例外）
+    byte[] getBytes(String path, String accept) throws IOException, InterruptedException {
+        HttpResponse<byte[]> res = http.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Accept", accept)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (res.statusCode() / 100 != 2) throw new IOException("GET " + path + " failed (status " + res.statusCode() + ")");
+        return res.body();
+    }
+
+    // JSON を送信してステータスコードを返す（CSRF ヘッダ付き）
+    int send(String method, String path, String json) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Content-Type", "application/json")
+                        .header(csrfHeader, csrfToken)
+                        .method(method, HttpRequest.BodyPublishers.ofString(json))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String find(Pattern p, String html, String what) throws IOException {
+        Matcher m = p.matcher(html);
+        if (!m.find()) throw new IOException(what + " not found");
+        return m.group(1);
+    }
+
+    private static String enc(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+}
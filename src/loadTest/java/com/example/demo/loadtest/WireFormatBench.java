@@ -0,0 +1,60 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+// ------------------------------------------------------------
+// レスポンス形式ごとの「サイズ」と「デコード時間」の比較
+//   ・起動中のアプリから同じページを形式を変えて取得する
+//     JSON（Page<BookResponse>）/ JSON（?view=compact）/ CBOR / Smile とその組み合わせ
+//   ・デコードはクライアント側の処理（readTree）を rounds 回繰り返して 1 回あたりの時間を出す
+//     JIT が効くまで rounds / 4 回は空回しする
+// ------------------------------------------------------------
+final class WireFormatBench {
+
+    private static final String SMILE = "application/x-jackson-smile";
+
+    private final Options opts;
+
+    WireFormatBench(Options opts) {
+        this.opts = opts;
+    }
+
+    void run() throws Exception {
+        String baseUrl = opts.get("base-url", "http://localhost:8080");
+        int size = opts.getInt("size", 100);
+        int rounds = opts.getInt("rounds", 2000);
+
+        SessionClient client = new SessionClient(baseUrl);
+        client.login(DataSeeder.USER_PREFIX + 0, "password");
+
+        ObjectMapper json = new ObjectMapper(new JsonFactory());
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+        String full = "/api/books?page=0&size=" + size + "&sort=id,asc";
+        String compact = full + "&view=compact";
+
+        System.out.printf("%-24s %9s %12s%n", "format", "bytes", "decode us");
+        measure("json  / page", client.getBytes(full, "application/json"), json, rounds);
+        measure("json  / compact", client.getBytes(compact, "application/json"), json, rounds);
+        measure("cbor  / page", client.getBytes(full, "application/cbor"), cbor, rounds);
+        measure("cbor  / compact", client.getBytes(compact, "application/cbor"), cbor, rounds);
+        measure("smile / page", client.getBytes(full, SMILE), smile, rounds);
+        measure("smile / compact", client.getBytes(compact, SMILE), smile, rounds);
+    }
+
+    private static void measure(String label, byte[] body, ObjectMapper mapper, int rounds) throws Exception {
+        for (int i = 0; i < rounds / 4; i++) {
+            mapper.readTree(body);
+        }
+        long t0 = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            mapper.readTree(body);
+        }
+        long elapsed = System.nanoTime() - t0;
+        System.out.printf("%-24s %9d %12.1f%n", label, body.length, elapsed / 1000.0 / rounds);
+    }
+}
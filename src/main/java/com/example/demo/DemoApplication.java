@@ -2,10 +2,20 @@ package com.example.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class DemoApplication {
+
+    // 起動タイムラインとして記録するステップ数の上限
+    private static final int STARTUP_STEPS = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(DemoApplication.class, args);
+        SpringApplication app = new SpringApplication(DemoApplication.class);
+
+        // 起動中の各ステップ（Bean の生成など）の所要時間を記録する
+        // → StartupReport がログに出力し、/actuator/startup でも参照できる
+        app.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        app.run(args);
     }
 }
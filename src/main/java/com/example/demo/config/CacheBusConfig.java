@@ -0,0 +1,65 @@
+package com.example.demo.config;
+
+import com.example.demo.repository.CacheInvalidationRepository;
+import com.example.demo.service.CacheInvalidationBus;
+import com.example.demo.service.PgNotifyCacheInvalidationBus;
+import com.example.demo.service.PollingCacheInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// ------------------------------------------------------------
+// ノード間キャッシュ無効化バスの設定
+//   app.cache-bus.mode
+//     auto     … 接続先が PostgreSQL なら LISTEN / NOTIFY、それ以外はポーリング（既定）
+//     postgres … LISTEN / NOTIFY
+//     polling  … cache_invalidation テーブルのポーリング
+// ------------------------------------------------------------
+@Configuration
+public class CacheBusConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheInvalidationBus cacheInvalidationBus(
+            DataSource dataSource,
+            DataSourceProperties dataSourceProperties,
+            CacheInvalidationRepository repo,
+            @Value("${app.cache-bus.mode:auto}") String mode,
+            @Value("${app.cache-bus.poll-interval:PT0.5S}") Duration pollInterval,
+            @Value("${app.cache-bus.retention:PT10M}") Duration retention,
+            @Value("${app.cache-bus.in-flight-lag:PT30S}") Duration inFlightLag) throws SQLException {
+
+        if (usePgNotify(mode, dataSource)) {
+            PgNotifyCacheInvalidationBus bus = new PgNotifyCacheInvalidationBus(dataSource,
+                    listenDataSource(dataSourceProperties));
+            bus.start();
+            return bus;
+        }
+        PollingCacheInvalidationBus bus = new PollingCacheInvalidationBus(repo, pollInterval, retention, inFlightLag);
+        bus.start();
+        return bus;
+    }
+
+    // LISTEN 用：プールを通さず、接続先・ユーザーだけ spring.datasource.* と同じにする
+    private static DataSource listenDataSource(DataSourceProperties props) {
+        return new DriverManagerDataSource(props.determineUrl(), props.determineUsername(),
+                props.determinePassword());
+    }
+
+    // LISTEN / NOTIFY を使うかどうか（mode と接続先の DB で決める）
+    static boolean usePgNotify(String mode, DataSource dataSource) throws SQLException {
+        return mode.equals("postgres") || (mode.equals("auto") && isPostgres(dataSource));
+    }
+
+    private static boolean isPostgres(DataSource dataSource) throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(con.getMetaData().getDatabaseProductName());
+        }
+    }
+}
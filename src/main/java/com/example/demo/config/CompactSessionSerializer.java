@@ -0,0 +1,137 @@
+package com.example.demo.config;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// ------------------------------------------------------------
+// セッション属性 ⇔ バイト列の変換（spring_session_attributes.attribute_bytes）
+//
+//   ・ログイン状態（SecurityContext）は「ユーザー名 + 権限」だけを書く
+//     Java シリアライズだと User / 権限 / WebAuthenticationDetails のクラス情報まで入り 1KB を超えるが、
+//     この形式なら数十バイトで済む
+//   ・CSRF トークンも 3 つの文字列だけを書く
+//   ・それ以外の属性（ログイン前に開こうとした URL など）は従来どおり Java シリアライズ
+//
+//   先頭 1 バイトで形式を見分ける（Java シリアライズは必ず 0xAC で始まる）
+//   読み戻した SecurityContext の principal はパスワードなしの User で、
+//   認証時の詳細（接続元アドレスなど）は持たない
+// ------------------------------------------------------------
+final class CompactSessionSerializer implements GenericConverter {
+
+    private static final byte SECURITY_CONTEXT = 1;
+    private static final byte CSRF_TOKEN = 2;
+
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer;
+
+    CompactSessionSerializer(ClassLoader classLoader) {
+        this.deserializer = new DeserializingConverter(classLoader);
+    }
+
+    @Override
+    public Set<ConvertiblePair> getConvertibleTypes() {
+        return Set.of(new ConvertiblePair(Object.class, byte[].class),
+                      new ConvertiblePair(byte[].class, Object.class));
+    }
+
+    @Override
+    public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+        if (source == null) return null;
+        return targetType.getType() == byte[].class ? serialize(source) : deserialize((byte[]) source);
+    }
+
+    // -----------------------------------------------------
+    // 書き込み
+    // -----------------------------------------------------
+    byte[] serialize(Object value) {
+        if (value instanceof SecurityContext ctx && isCompactable(ctx.getAuthentication())) {
+            return write(out -> {
+                out.writeByte(SECURITY_CONTEXT);
+                Authentication auth = ctx.getAuthentication();
+                out.writeUTF(auth.getName());
+                out.writeShort(auth.getAuthorities().size());
+                for (GrantedAuthority a : auth.getAuthorities()) {
+                    out.writeUTF(a.getAuthority());
+                }
+            });
+        }
+        if (value instanceof DefaultCsrfToken token) {
+            return write(out -> {
+                out.writeByte(CSRF_TOKEN);
+                out.writeUTF(token.getHeaderName());
+                out.writeUTF(token.getParameterName());
+                out.writeUTF(token.getToken());
+            });
+        }
+        return serializer.convert(value);
+    }
+
+    // フォームログインで認証済みの状態だけを対象にする（匿名などは Java シリアライズのまま）
+    private static boolean isCompactable(Authentication auth) {
+        return auth instanceof UsernamePasswordAuthenticationToken && auth.isAuthenticated();
+    }
+
+    // -----------------------------------------------------
+    // 読み込み
+    // -----------------------------------------------------
+    Object deserialize(byte[] bytes) {
+        if (bytes.length == 0) return deserializer.convert(bytes);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            switch (bytes[0]) {
+                case SECURITY_CONTEXT -> {
+                    String username = in.readUTF();
+                    int n = in.readUnsignedShort();
+                    List<GrantedAuthority> authorities = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        authorities.add(new SimpleGrantedAuthority(in.readUTF()));
+                    }
+                    User principal = new User(username, "", authorities);
+                    return new SecurityContextImpl(
+                            UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities));
+                }
+                case CSRF_TOKEN -> {
+                    return new DefaultCsrfToken(in.readUTF(), in.readUTF(), in.readUTF());
+                }
+                default -> {
+                    return deserializer.convert(bytes);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] write(Writer writer) {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(buf)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buf.toByteArray();
+    }
+}
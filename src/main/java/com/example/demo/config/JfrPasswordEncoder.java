@@ -0,0 +1,39 @@
+package com.example.demo.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// ------------------------------------------------------------
+// パスワード照合の時間を JFR イベント（PasswordCheckEvent）として記録する PasswordEncoder
+//   実際の処理は delegate（BCrypt）に任せる
+// ------------------------------------------------------------
+final class JfrPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    JfrPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordCheckEvent event = new PasswordCheckEvent();
+        event.begin();
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        event.end();
+        if (event.shouldCommit()) {
+            event.matched = matched;
+            event.commit();
+        }
+        return matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// -----------------------------------------------------
+// JFR イベント：ログイン時のパスワード照合（BCrypt）1 回
+//   BCrypt は意図的に重い処理なので、ログインが集中したときの CPU 消費を確認できる
+// -----------------------------------------------------
+@Name("com.example.demo.PasswordCheck")
+@Label("Password Check")
+@Description("BCrypt password verification in the login path")
+@Category({"Book Manager", "Security"})
+@StackTrace(false)
+public final class PasswordCheckEvent extends jdk.jfr.Event {
+
+    @Label("Matched")
+    boolean matched;
+}
@@ -0,0 +1,10 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// @Scheduled を付けたメソッド（定期実行）を有効にする設定
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
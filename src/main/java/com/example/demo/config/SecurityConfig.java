@@ -11,9 +11,10 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     // パスワードエンコーダー（BCrypt）
+    // 照合にかかった時間を JFR に記録するため JfrPasswordEncoder で包む
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new JfrPasswordEncoder(new BCryptPasswordEncoder());
     }
 
     // セキュリティ設定（CSRFはデフォルトで有効）
@@ -23,6 +24,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // ログイン画面、エラー、静的ファイルは誰でもOK
                         .requestMatchers("/login", "/error", "/css/**", "/js/**").permitAll()
+                        // 運用向けの API（JFR のダンプなど）は ROLE_ADMIN のみ
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
                         // それ以外はログイン必須
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,84 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// ------------------------------------------------------------
+// HTTP セッションの保存先（Spring Session JDBC）
+//
+//   ・セッションは既存の DB（spring_session / spring_session_attributes）に置く
+//     → どのノードにリクエストが来てもログイン状態を引き継げる（スティッキーセッション不要）
+//     → 同時ログイン数が増えてもヒープは増えない
+//   ・属性は CompactSessionSerializer で小さなバイト列にして保存する
+//   ・読み込みは遅延：セッションはリクエストで必要になったときだけ DB から読み、
+//     属性のデシリアライズも getAttribute されたときだけ行う（Spring Session の既定動作）
+//     ログイン不要のパス（/login, /css/** など）ではセッションを読まない
+//   ・期限切れセッションの削除は Spring Session の一括 DELETE ではなく、
+//     cleanupExpiredSessions で batch-size 件ずつ消す（1 回の DELETE で長くロックしない）
+//     → spring.session.jdbc.cleanup-cron は "-"（無効）にしている
+// ------------------------------------------------------------
+@Configuration
+public class SessionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionConfig.class);
+
+    // Spring Session JDBC はこの名前の ConversionService があれば属性の変換に使う
+    @Bean
+    public ConversionService springSessionConversionService() {
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(new CompactSessionSerializer(getClass().getClassLoader()));
+        return conversionService;
+    }
+
+    // lazy プロファイルでも起動時に作る（誰も参照しないので、遅延だと @Scheduled が始まらない）
+    @Bean
+    @Lazy(false)
+    public ExpiredSessionCleaner expiredSessionCleaner(
+            JdbcTemplate jdbc,
+            @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String table,
+            @Value("${app.session.cleanup-batch-size:500}") int batchSize) {
+        return new ExpiredSessionCleaner(jdbc, table, batchSize);
+    }
+
+    // -----------------------------------------------------
+    // 期限切れセッションの削除（定期実行。複数ノードで同時に動いても問題ない）
+    //   属性（spring_session_attributes）は外部キーの ON DELETE CASCADE で一緒に消える
+    // -----------------------------------------------------
+    public static class ExpiredSessionCleaner {
+
+        private final JdbcTemplate jdbc;
+        private final String deleteSql;
+        private final int batchSize;
+
+        ExpiredSessionCleaner(JdbcTemplate jdbc, String table, int batchSize) {
+            this.jdbc = jdbc;
+            this.batchSize = batchSize;
+            this.deleteSql = "DELETE FROM " + table + " WHERE PRIMARY_ID IN ("
+                    + "SELECT PRIMARY_ID FROM " + table + " WHERE EXPIRY_TIME < ? ORDER BY EXPIRY_TIME LIMIT ?)";
+        }
+
+        @Scheduled(fixedDelayString = "${app.session.cleanup-interval:PT1M}")
+        public void cleanupExpiredSessions() {
+            long now = System.currentTimeMillis();
+            int total = 0;
+            int n;
+            do {
+                // 1 バッチ 1 文（自動コミット）。ロックは batchSize 行分だけで済む
+                n = jdbc.update(deleteSql, now, batchSize);
+                total += n;
+            } while (n == batchSize);
+
+            if (total > 0) {
+                log.debug("Deleted {} expired sessions", total);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+
+// ------------------------------------------------------------
+// 起動タイムラインのレポート
+//   ・起動完了（ApplicationReadyEvent）時に、JVM 起動からの経過時間と
+//     時間のかかったステップ上位をログに出す
+//   ・DemoApplication で BufferingApplicationStartup を設定しているときだけ動く
+//   ・同じデータは /actuator/startup でも JSON で取得できる
+// ------------------------------------------------------------
+@Component
+public class StartupReport implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    // ログに出すステップ数
+    private static final int TOP = 15;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("Application ready in {} ms since JVM start",
+                ManagementFactory.getRuntimeMXBean().getUptime());
+
+        if (!(event.getApplicationContext().getApplicationStartup()
+                instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+
+        // getBufferedTimeline は記録を消さない（/actuator/startup 側でも読める）
+        List<StartupTimeline.TimelineEvent> slowest = startup.getBufferedTimeline().getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(TOP)
+                .toList();
+
+        for (StartupTimeline.TimelineEvent e : slowest) {
+            log.info("  {} ms  {}{}", e.getDuration().toMillis(), e.getStartupStep().getName(), tags(e.getStartupStep()));
+        }
+    }
+
+    // beanName などのタグを「 [key=value, ...]」の形にする
+    private static String tags(StartupStep step) {
+        StringBuilder sb = new StringBuilder();
+        for (StartupStep.Tag tag : step.getTags()) {
+            sb.append(sb.isEmpty() ? " [" : ", ").append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return sb.isEmpty() ? "" : sb.append(']').toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// ------------------------------------------------------------
+// Spring MVC の設定
+//   ・CBOR / Smile（Jackson のバイナリ形式）のコンバータ
+//     Accept: application/cbor              → CBOR
+//     Accept: application/x-jackson-smile   → Smile
+//   ・Spring MVC は jackson-dataformat-cbor / smile があると同じ型のコンバータを自動で登録するが、
+//     その ObjectMapper は Spring Boot の設定（spring.jackson.*）を引き継がず、
+//     LocalDateTime が [2024,1,1,9,0] のような配列で出力されてしまう
+//   ・同じ型のコンバータを Bean として定義すると、Spring Boot（HttpMessageConverters）が
+//     既定のものと「置き換える」（並び順も既定と同じなので、Accept 未指定なら JSON のまま）
+//   ・ObjectMapper は Spring Boot のもの（JSON のレスポンスと同じ設定）を
+//     copyWith でバイナリ形式のファクトリに差し替えて作る
+// ------------------------------------------------------------
+@Configuration
+public class WebConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+}
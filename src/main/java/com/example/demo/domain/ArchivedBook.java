@@ -0,0 +1,70 @@
+package com.example.demo.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// -----------------------------------------------------
+// ArchivedBook エンティティ（アーカイブ済み = コールド層の Book）
+//   ・作成から一定期間が過ぎた Book は、BookTiering が book から book_archive へ移す
+//   ・ID は book のものをそのまま引き継ぐ（自動採番しない）
+//   ・更新・削除するときは、先にホット層へ戻す（BookTiering.restore）
+//   ・PostgreSQL では db/postgres-partitioning.sql で created_at の範囲パーティションにできる
+// -----------------------------------------------------
+@Entity
+@Table(name = "book_archive", indexes = {
+        @Index(name = "idx_book_archive_created_at", columnList = "createdAt")
+})
+public class ArchivedBook {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 120)
+    private String title;
+
+    @Column(nullable = false, length = 80)
+    private String author;
+
+    private Integer price;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    // アーカイブされた日時
+    private LocalDateTime archivedAt;
+
+    // Book（一覧・取得で返す形）に変換する。永続化はされない
+    public Book toBook() {
+        Book b = new Book();
+        b.setId(id);
+        b.setTitle(title);
+        b.setAuthor(author);
+        b.setPrice(price);
+        b.setCreatedAt(createdAt);
+        b.setUpdatedAt(updatedAt);
+        return b;
+    }
+
+    // ---- ここから getter/setter ----
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getAuthor() { return author; }
+    public void setAuthor(String author) { this.author = author; }
+
+    public Integer getPrice() { return price; }
+    public void setPrice(Integer price) { this.price = price; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
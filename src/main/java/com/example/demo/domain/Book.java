@@ -4,6 +4,15 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity // ← このクラスがDBテーブルと対応する「エンティティ」であることを示す
+@Table(indexes = {
+        // 著者で絞り込み + 作成日順（画面のデフォルトの並び）を 1 本のインデックスで返せるようにする
+        @Index(name = "idx_book_author_created_at", columnList = "author, createdAt"),
+        // 価格の範囲検索・価格順
+        @Index(name = "idx_book_price", columnList = "price"),
+        // 作成日・更新日の範囲検索と並び替え
+        @Index(name = "idx_book_created_at", columnList = "createdAt"),
+        @Index(name = "idx_book_updated_at", columnList = "updatedAt")
+})
 public class Book {
 
     @Id // ← 主キーを表す（必須）
@@ -42,6 +51,19 @@ public class Book {
         updatedAt = LocalDateTime.now(); // 更新日時を毎回更新
     }
 
+    // ---- 値のコピー ----
+    // 永続化コンテキストから切り離したスナップショットを作る（変更前の値を残したいとき用）
+    public Book copy() {
+        Book c = new Book();
+        c.id = id;
+        c.title = title;
+        c.author = author;
+        c.price = price;
+        c.createdAt = createdAt;
+        c.updatedAt = updatedAt;
+        return c;
+    }
+
     // ---- ここから getter/setter ----
     // JPA ではプロパティへのアクセスに getter/setter が必要
     public Long getId() { return id; }
@@ -0,0 +1,63 @@
+package com.example.demo.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// -----------------------------------------------------
+// BookChange エンティティ（変更履歴 / チェンジフィード）
+//   ・Book の作成・更新・削除を 1 件ずつ記録する追記専用テーブル
+//   ・seq は単調増加する変更番号で、差分同期の「ウォーターマーク」になる
+//   ・削除時も行を残す（= トゥームストーン）ので、クライアントは削除も検知できる
+//
+//   差分取得は「seq > since」の範囲検索なので、主キー（seq）のインデックスだけで
+//   O(変更件数) で読める（book テーブル全体を走査しない）
+// -----------------------------------------------------
+@Entity
+@Table(name = "book_change")
+public class BookChange {
+
+    // 変更の種類
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // ← DB 側で自動採番される連番。そのまま変更番号（トークン）として使う
+    private Long seq;
+
+    @Column(nullable = false)
+    // ← 変更された Book の ID（削除済みでも残る）
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Type type;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+
+    public BookChange() {}
+
+    public BookChange(Long bookId, Type type) {
+        this.bookId = bookId;
+        this.type = type;
+    }
+
+    @PrePersist
+        // ← 記録される直前に変更日時を設定する
+    void onCreate() {
+        changedAt = LocalDateTime.now();
+    }
+
+    // ---- ここから getter/setter ----
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
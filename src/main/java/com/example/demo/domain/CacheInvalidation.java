@@ -0,0 +1,54 @@
+package com.example.demo.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// -----------------------------------------------------
+// CacheInvalidation エンティティ（キャッシュ無効化の通知 1 件）
+//   ・LISTEN / NOTIFY が使えない DB（H2 など）で、ノード間の無効化通知を
+//     テーブル経由で受け渡すために使う（PollingCacheInvalidationBus）
+//   ・書き込み側は同じトランザクションで INSERT するので、コミットされた通知だけが見える
+//   ・古い行は一定時間で削除する
+// -----------------------------------------------------
+@Entity
+@Table(name = "cache_invalidation")
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String cacheName;   // キャッシュ名（"books" など）
+
+    @Column(nullable = false, length = 200)
+    private String entityKey;   // 無効化するキー（Book の ID など）
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public CacheInvalidation() {}
+
+    public CacheInvalidation(String cacheName, String entityKey) {
+        this.cacheName = cacheName;
+        this.entityKey = entityKey;
+    }
+
+    @PrePersist
+    void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // ---- ここから getter/setter ----
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCacheName() { return cacheName; }
+    public void setCacheName(String cacheName) { this.cacheName = cacheName; }
+
+    public String getEntityKey() { return entityKey; }
+    public void setEntityKey(String entityKey) { this.entityKey = entityKey; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.time.LocalDateTime;
+
+// -----------------------------------------------------
+// CatalogBook エンティティ（ホット層 + コールド層をまとめた読み取り専用ビュー）
+//   ・book と book_archive の UNION ALL をテーブルのように扱う
+//     （DB にビューを作らなくても H2 / PostgreSQL の両方で動く）
+//   ・並び順や検索条件の都合で両方の層を見る必要があるときだけ使う
+//   ・@Synchronize : 問い合わせ前に book / book_archive への未反映の変更を flush させる
+// -----------------------------------------------------
+@Entity
+@Immutable
+@Subselect("""
+        select id, title, author, price, created_at, updated_at from book
+        union all
+        select id, title, author, price, created_at, updated_at from book_archive
+        """)
+@Synchronize({"book", "book_archive"})
+public class CatalogBook {
+
+    @Id
+    private Long id;
+    private String title;
+    private String author;
+    private Integer price;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Book（一覧・取得で返す形）に変換する。永続化はされない
+    public Book toBook() {
+        Book b = new Book();
+        b.setId(id);
+        b.setTitle(title);
+        b.setAuthor(author);
+        b.setPrice(price);
+        b.setCreatedAt(createdAt);
+        b.setUpdatedAt(updatedAt);
+        return b;
+    }
+
+    // ---- getter（読み取り専用なので setter はなし） ----
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getAuthor() { return author; }
+    public Integer getPrice() { return price; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
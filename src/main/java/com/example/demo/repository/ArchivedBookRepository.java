@@ -0,0 +1,51 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.ArchivedBook;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+// ----------------------------------------------
+// ArchivedBook（コールド層）を扱うリポジトリ
+// ----------------------------------------------
+public interface ArchivedBookRepository extends JpaRepository<ArchivedBook, Long> {
+
+    // -------------------------------------------------------------
+    // ホット層（book）の行をそのままコールド層へコピーする（INSERT ... SELECT 1 本）
+    // -------------------------------------------------------------
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO book_archive (id, title, author, price, created_at, updated_at, archived_at)
+            SELECT id, title, author, price, created_at, updated_at, CURRENT_TIMESTAMP
+            FROM book WHERE id IN (:ids)
+            """)
+    int copyFromHot(List<Long> ids);
+
+    // -------------------------------------------------------------
+    // ids のうちコールド層にあるものを行ロック付きで取る（ホット層へ戻す前に。BookTiering.restore）
+    //   同じ Book を同時に戻そうとした側は、先に戻した側のコミットを待ち、行が消えているので何も取らない
+    // -------------------------------------------------------------
+    @Query(nativeQuery = true, value = "SELECT id FROM book_archive WHERE id IN (:ids) ORDER BY id FOR UPDATE")
+    List<Long> lockIds(Collection<Long> ids);
+
+    // -------------------------------------------------------------
+    // コールド層の ID を limit 件（1 件でもあるかの確認に使う。count より安い）
+    // -------------------------------------------------------------
+    @Query("select a.id from ArchivedBook a")
+    List<Long> findIds(Limit limit);
+
+    // -------------------------------------------------------------
+    // 作成日時の新しい順に offset 件目から limit 件
+    //   ホット層の後ろに続けて読むため、Pageable ではなく任意の offset で読む
+    // -------------------------------------------------------------
+    @Query(nativeQuery = true, value = """
+            SELECT * FROM book_archive
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit OFFSET :offset
+            """)
+    List<ArchivedBook> findNewestFirst(long offset, int limit);
+}
@@ -0,0 +1,27 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// ----------------------------------------------
+// 一括更新・一括削除用のカスタムリポジトリ
+//   ・BookRepository に組み込まれる（実装は BookBulkRepositoryImpl）
+//   ・対象は ID のキーセット（id > afterId）で区切って少しずつ処理する
+//     → 1 トランザクションで握るロックを chunk 件に抑える
+// ----------------------------------------------
+public interface BookBulkRepository {
+
+    // 条件に一致し id > afterId の Book の ID を、id の昇順に limit 件（行ロック付き）
+    List<Long> lockIdsAfter(Specification<Book> spec, long afterId, int limit);
+
+    // ids のうち条件に一致する Book の ID を、id の昇順に（行ロック付き）
+    // 対象を CatalogBook（両層）から選んだときに、ホット層の行を確かめてロックする
+    List<Long> lockIds(Specification<Book> spec, Collection<Long> ids);
+
+    // ids の Book に update を UPDATE 1 本で適用する（updatedAt も now にそろえる）
+    int updateByIds(List<Long> ids, BookBulkUpdate update, LocalDateTime now);
+}
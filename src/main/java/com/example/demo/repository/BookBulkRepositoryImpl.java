@@ -0,0 +1,100 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// ----------------------------------------------
+// BookBulkRepository の実装
+// ----------------------------------------------
+class BookBulkRepositoryImpl implements BookBulkRepository {
+
+    private final EntityManager em;
+
+    BookBulkRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    // SELECT id FROM book WHERE ... AND id > ? ORDER BY id LIMIT ? FOR UPDATE
+    //   同じトランザクションの UPDATE / DELETE までの間に、他の書き込みで条件から外れないようにロックする
+    @Override
+    public List<Long> lockIdsAfter(Specification<Book> spec, long afterId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> q = cb.createQuery(Long.class);
+        Root<Book> root = q.from(Book.class);
+        Path<Long> id = root.get("id");
+
+        q.select(id)
+                .where(spec.toPredicate(root, q, cb), cb.greaterThan(id, afterId))
+                .orderBy(cb.asc(id));
+
+        return em.createQuery(q)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    // SELECT id FROM book WHERE ... AND id IN (...) ORDER BY id FOR UPDATE
+    @Override
+    public List<Long> lockIds(Specification<Book> spec, Collection<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> q = cb.createQuery(Long.class);
+        Root<Book> root = q.from(Book.class);
+        Path<Long> id = root.get("id");
+
+        q.select(id)
+                .where(spec.toPredicate(root, q, cb), id.in(ids))
+                .orderBy(cb.asc(id));
+
+        return em.createQuery(q)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    // UPDATE book SET updated_at = ?, price = ..., author = ? WHERE id IN (...)
+    //   一括 UPDATE は @PreUpdate を通らないので updatedAt はここで設定する
+    //   価格の計算は int のままだと price × percent があふれるので long で行い、
+    //   0 ～ int の上限に収めてから int に戻す
+    @Override
+    public int updateByIds(List<Long> ids, BookBulkUpdate u, LocalDateTime now) {
+        StringBuilder jpql = new StringBuilder("update Book b set b.updatedAt = :now");
+        if (u.changesPrice()) {
+            String price = "cast(b.price as Long) + cast(b.price as Long) * :percent / 100 + :delta";
+            jpql.append(", b.price = cast(case when ").append(price).append(" < 0 then 0L")
+                    .append(" when ").append(price).append(" > :maxPrice then :maxPrice")
+                    .append(" else ").append(price).append(" end as Integer)");
+        }
+        if (u.author() != null && !u.author().isBlank()) {
+            jpql.append(", b.author = :author");
+        }
+        jpql.append(" where b.id in :ids");
+
+        Query q = em.createQuery(jpql.toString())
+                .setParameter("now", now)
+                .setParameter("ids", ids);
+        if (u.changesPrice()) {
+            q.setParameter("percent", u.pricePercent() == null ? 0L : u.pricePercent().longValue());
+            q.setParameter("delta", u.priceDelta() == null ? 0L : u.priceDelta().longValue());
+            q.setParameter("maxPrice", (long) Integer.MAX_VALUE);
+        }
+        if (u.author() != null && !u.author().isBlank()) {
+            q.setParameter("author", u.author().trim());
+        }
+        int n = q.executeUpdate();
+
+        // 永続化コンテキストに残っている古い Book を捨てる（一括 UPDATE はここに反映されない）
+        em.clear();
+        return n;
+    }
+}
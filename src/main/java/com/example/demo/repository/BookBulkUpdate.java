@@ -0,0 +1,22 @@
+package com.example.demo.repository;
+
+// ----------------------------------------------
+// 一括更新の内容（null の項目は変更しない）
+//   価格は「price + price × pricePercent / 100 + priceDelta」（1 円未満は切り捨て、0 未満は 0、int の上限を超えたら上限）
+//   価格が未設定（null）の Book の価格は変わらない
+// ----------------------------------------------
+public record BookBulkUpdate(
+        Integer pricePercent,       // 価格の増減率（%）。例: 10 で 1 割増し、-20 で 2 割引き
+        Integer priceDelta,         // 価格の増減額（円）
+        String author               // 著者の置き換え
+) {
+
+    public boolean changesPrice() {
+        return pricePercent != null || priceDelta != null;
+    }
+
+    // 変更する項目が 1 つもないか
+    public boolean isEmpty() {
+        return !changesPrice() && (author == null || author.isBlank());
+    }
+}
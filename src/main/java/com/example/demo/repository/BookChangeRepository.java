@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.BookChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+// ----------------------------------------------
+// BookChange（変更履歴）を扱うリポジトリ
+// ----------------------------------------------
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+
+    // -------------------------------------------------------------
+    // findBySeqGreaterThanOrderBySeqAsc:
+    //   SELECT * FROM book_change WHERE seq > ? ORDER BY seq LIMIT ?
+    //
+    //   主キーの範囲検索なので、読む行数は「since 以降の変更件数」だけで済む。
+    // -------------------------------------------------------------
+    List<BookChange> findBySeqGreaterThanOrderBySeqAsc(Long since, Limit limit);
+
+    // -------------------------------------------------------------
+    // 一括更新・一括削除の変更履歴をまとめて記録する（INSERT ... SELECT 1 本）
+    //   削除の場合は、行を消す前に呼ぶ
+    // -------------------------------------------------------------
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO book_change (book_id, type, changed_at)
+            SELECT id, :type, LOCALTIMESTAMP FROM book WHERE id IN (:ids)
+            """)
+    int recordAll(List<Long> ids, String type);
+}
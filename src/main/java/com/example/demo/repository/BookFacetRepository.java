@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// ----------------------------------------------
+// ファセット集計用のカスタムリポジトリ
+//   ・BookRepository に組み込まれる（実装は BookFacetRepositoryImpl）
+//   ・どちらも検索条件を付けた GROUP BY 1 本で集計する（値ごとに count を N 回投げない）
+// ----------------------------------------------
+public interface BookFacetRepository {
+
+    // 著者ごとの件数（件数の多い順に limit 件）
+    List<FacetCount> authorFacets(Specification<Book> spec, int limit);
+
+    // 価格帯ごとの件数（value は区間の下限。区間幅 bucketWidth、下限の昇順）
+    List<FacetCount> priceFacets(Specification<Book> spec, int bucketWidth);
+}
@@ -0,0 +1,32 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.Book;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// ----------------------------------------------
+// BookFacetRepository の実装
+//   クラス名を「インターフェース名 + Impl」にすると Spring Data が自動で見つけて
+//   BookRepository に組み込んでくれる
+//   集計のクエリ自体は FacetQueries（CatalogBook の集計と共通）
+// ----------------------------------------------
+class BookFacetRepositoryImpl implements BookFacetRepository {
+
+    private final EntityManager em;
+
+    BookFacetRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public List<FacetCount> authorFacets(Specification<Book> spec, int limit) {
+        return FacetQueries.authorFacets(em, Book.class, spec, limit);
+    }
+
+    @Override
+    public List<FacetCount> priceFacets(Specification<Book> spec, int bucketWidth) {
+        return FacetQueries.priceFacets(em, Book.class, spec, bucketWidth);
+    }
+}
@@ -4,7 +4,58 @@ import com.example.demo.domain.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// JpaSpecificationExecutor : BookSpecifications で組み立てた複合条件で検索できるようにする
+// BookFacetRepository      : ファセット集計（GROUP BY）用のカスタムメソッド
+// BookBulkRepository       : 条件指定の一括更新用のカスタムメソッド
+public interface BookRepository extends JpaRepository<Book, Long>,
+        JpaSpecificationExecutor<Book>, BookFacetRepository, BookBulkRepository {
     Page<Book> findByTitleContainingIgnoreCase(String keyword, Pageable pageable);
+
+    // 新しい順のページ（件数は数えない。BookTiering が両層の件数と一緒に別に数える）
+    List<Book> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    // 両層の件数と、ホット層の最古・コールド層の最新の作成日時（[hot, archived, hotOldest, archivedNewest]）
+    // 1 本の SQL で読むので、4 つとも同じ時点の値になる（BookTiering の新しい順の一覧で使う）
+    @Query(nativeQuery = true, value = """
+            SELECT (SELECT count(*) FROM book),
+                   (SELECT count(*) FROM book_archive),
+                   (SELECT min(created_at) FROM book),
+                   (SELECT max(created_at) FROM book_archive)
+            """)
+    List<Object[]> tierBoundary();
+
+    // 作成日時が cutoff より前の Book の ID（古い順に limit 件）を行ロック付きで取る
+    // ホット層からコールド層へ移す対象を選ぶ（BookTiering.archive）
+    // 他のノードが同時にアーカイブしていても、ロック済みの行は飛ばすので同じ行を取り合わない
+    @Query(nativeQuery = true, value = """
+            SELECT id FROM book
+            WHERE created_at < :cutoff
+            ORDER BY created_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """)
+    List<Long> lockIdsCreatedBefore(LocalDateTime cutoff, int limit);
+
+    // コールド層（book_archive）の行を ID を引き継いでホット層へコピーする（INSERT ... SELECT 1 本）
+    // アーカイブ済みの Book を更新・削除する前に戻す（BookTiering.restore）
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO book (id, title, author, price, created_at, updated_at)
+            SELECT id, title, author, price, created_at, updated_at
+            FROM book_archive WHERE id IN (:ids)
+            """)
+    int copyFromArchive(Collection<Long> ids);
+
+    // ids の Book を著者・価格ごとに数える（[author, price, count]）
+    // 一括更新・一括削除で、統計値（CatalogStatistics）に渡す変更前・変更後の差分を作る
+    @Query("select b.author, b.price, count(b) from Book b where b.id in :ids group by b.author, b.price")
+    List<Object[]> countByAuthorAndPrice(Collection<Long> ids);
 }
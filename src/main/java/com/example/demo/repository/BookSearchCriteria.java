@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+
+// ----------------------------------------------
+// Book の複合検索条件
+//   ・すべて省略可能（null の項目は条件に含めない）
+//   ・範囲条件（price / createdAt / updatedAt）は From 以上・To 以下
+// ----------------------------------------------
+public record BookSearchCriteria(
+        String q,                   // タイトルの部分一致（大文字・小文字を区別しない）
+        String author,              // 著者の完全一致
+        Integer minPrice,           // 価格の下限
+        Integer maxPrice,           // 価格の上限
+        LocalDateTime createdFrom,  // 作成日時の下限
+        LocalDateTime createdTo,    // 作成日時の上限
+        LocalDateTime updatedFrom,  // 更新日時の下限
+        LocalDateTime updatedTo     // 更新日時の上限
+) {
+
+    // 条件が 1 つも指定されていない（= 全件が対象になる）か
+    public boolean isUnrestricted() {
+        return (q == null || q.isBlank()) && (author == null || author.isBlank())
+                && minPrice == null && maxPrice == null
+                && createdFrom == null && createdTo == null
+                && updatedFrom == null && updatedTo == null;
+    }
+}
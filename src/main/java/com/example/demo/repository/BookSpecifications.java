@@ -0,0 +1,59 @@
+package com.example.demo.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// ----------------------------------------------
+// BookSearchCriteria から JPA の検索条件（Specification）を組み立てる
+//   ・指定された項目の条件だけを AND でつなぐ
+//     （未指定の項目は WHERE 句に出てこないので、インデックスが効きやすい）
+//   ・Book（ホット層）と CatalogBook（両層）は項目名が同じなので、どちらにも使える
+// ----------------------------------------------
+public final class BookSpecifications {
+
+    // LIKE のエスケープ文字（Spring Data の派生クエリと同じ）
+    private static final EscapeCharacter LIKE_ESCAPE = EscapeCharacter.DEFAULT;
+
+    private BookSpecifications() {}
+
+    public static <T> Specification<T> matching(BookSearchCriteria c) {
+        return (root, query, cb) -> {
+            List<Predicate> ps = new ArrayList<>();
+
+            if (c.q() != null && !c.q().isBlank()) {
+                // % と _ はワイルドカードではなく文字として探す（findByTitleContainingIgnoreCase と同じ）
+                String term = LIKE_ESCAPE.escape(c.q().trim().toLowerCase(Locale.ROOT));
+                ps.add(cb.like(cb.lower(root.get("title")), "%" + term + "%", LIKE_ESCAPE.getEscapeCharacter()));
+            }
+            if (c.author() != null && !c.author().isBlank()) {
+                ps.add(cb.equal(root.get("author"), c.author().trim()));
+            }
+            if (c.minPrice() != null) {
+                ps.add(cb.greaterThanOrEqualTo(root.get("price"), c.minPrice()));
+            }
+            if (c.maxPrice() != null) {
+                ps.add(cb.lessThanOrEqualTo(root.get("price"), c.maxPrice()));
+            }
+            if (c.createdFrom() != null) {
+                ps.add(cb.greaterThanOrEqualTo(root.get("createdAt"), c.createdFrom()));
+            }
+            if (c.createdTo() != null) {
+                ps.add(cb.lessThanOrEqualTo(root.get("createdAt"), c.createdTo()));
+            }
+            if (c.updatedFrom() != null) {
+                ps.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), c.updatedFrom()));
+            }
+            if (c.updatedTo() != null) {
+                ps.add(cb.lessThanOrEqualTo(root.get("updatedAt"), c.updatedTo()));
+            }
+
+            // 条件が 0 件なら常に真（全件）になる
+            return cb.and(ps.toArray(new Predicate[0]));
+        };
+    }
+}
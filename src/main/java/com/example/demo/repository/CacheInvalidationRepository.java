@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.CacheInvalidation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// ----------------------------------------------
+// CacheInvalidation（無効化通知テーブル）を扱うリポジトリ
+// ----------------------------------------------
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    // id より後の通知（主キーの範囲検索）
+    List<CacheInvalidation> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // 現在の最大 ID（起動時の読み始め位置）
+    @Query("select coalesce(max(c.id), 0) from CacheInvalidation c")
+    long maxId();
+
+    // 古い通知をまとめて削除する（DELETE 1 本）
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidation c where c.createdAt < :before")
+    int deleteOlderThan(LocalDateTime before);
+}
@@ -0,0 +1,53 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.CatalogBook;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// ----------------------------------------------
+// CatalogBook（ホット層 + コールド層）を扱う読み取り専用リポジトリ
+//   JpaSpecificationExecutor    : BookSpecifications の複合条件で両層を検索する
+//   CatalogBookSearchRepository : ファセット集計・一括処理の対象選び
+// ----------------------------------------------
+public interface CatalogBookRepository extends JpaRepository<CatalogBook, Long>,
+        JpaSpecificationExecutor<CatalogBook>, CatalogBookSearchRepository {
+
+    Page<CatalogBook> findByTitleContainingIgnoreCase(String keyword, Pageable pageable);
+
+    // 価格ごとの件数（[price, count]）。price が null の行も 1 グループになる
+    // 集計値の再計算（CatalogStatistics.reconcile）で使う
+    @Query("select b.price, count(b) from CatalogBook b group by b.price")
+    List<Object[]> countByPrice();
+
+    // 著者ごとの件数（[author, count]）
+    @Query("select b.author, count(b) from CatalogBook b group by b.author")
+    List<Object[]> countByAuthor();
+
+    // ---- スナップショット作成用（CatalogSnapshots） ----
+
+    // id の昇順に limit 件ずつ（キーセット）
+    List<CatalogBook> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // 並び順ごとの id の列（トランザクションの中で読み切ること）
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.id from CatalogBook b order by b.createdAt, b.id")
+    Stream<Long> streamIdsOrderByCreatedAt();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.id from CatalogBook b order by b.title, b.id")
+    Stream<Long> streamIdsOrderByTitle();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.id from CatalogBook b order by b.price, b.id")
+    Stream<Long> streamIdsOrderByPrice();
+}
@@ -0,0 +1,23 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.CatalogBook;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// ----------------------------------------------
+// CatalogBook（ホット層 + コールド層）の複合条件検索用のカスタムリポジトリ
+//   ・CatalogBookRepository に組み込まれる（実装は CatalogBookSearchRepositoryImpl）
+//   ・アーカイブ済みの Book がある間の /search・ファセット・一括処理の対象選びに使う
+// ----------------------------------------------
+public interface CatalogBookSearchRepository {
+
+    // 著者ごとの件数（件数の多い順に limit 件）
+    List<FacetCount> authorFacets(Specification<CatalogBook> spec, int limit);
+
+    // 価格帯ごとの件数（value は区間の下限。区間幅 bucketWidth、下限の昇順）
+    List<FacetCount> priceFacets(Specification<CatalogBook> spec, int bucketWidth);
+
+    // 条件に一致し id > afterId の ID を、id の昇順に limit 件（UNION ALL なので行ロックは付けられない）
+    List<Long> findIdsAfter(Specification<CatalogBook> spec, long afterId, int limit);
+}
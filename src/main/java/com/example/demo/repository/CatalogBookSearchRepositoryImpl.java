@@ -0,0 +1,50 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.CatalogBook;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// ----------------------------------------------
+// CatalogBookSearchRepository の実装
+// ----------------------------------------------
+class CatalogBookSearchRepositoryImpl implements CatalogBookSearchRepository {
+
+    private final EntityManager em;
+
+    CatalogBookSearchRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public List<FacetCount> authorFacets(Specification<CatalogBook> spec, int limit) {
+        return FacetQueries.authorFacets(em, CatalogBook.class, spec, limit);
+    }
+
+    @Override
+    public List<FacetCount> priceFacets(Specification<CatalogBook> spec, int bucketWidth) {
+        return FacetQueries.priceFacets(em, CatalogBook.class, spec, bucketWidth);
+    }
+
+    // SELECT id FROM (book UNION ALL book_archive) WHERE ... AND id > ? ORDER BY id LIMIT ?
+    @Override
+    public List<Long> findIdsAfter(Specification<CatalogBook> spec, long afterId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> q = cb.createQuery(Long.class);
+        Root<CatalogBook> root = q.from(CatalogBook.class);
+        Path<Long> id = root.get("id");
+
+        q.select(id)
+                .where(spec.toPredicate(root, q, cb), cb.greaterThan(id, afterId))
+                .orderBy(cb.asc(id));
+
+        return em.createQuery(q)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.demo.repository;
+
+// ファセット（絞り込み候補）1 件分：値とその件数
+public record FacetCount(String value, long count) {}
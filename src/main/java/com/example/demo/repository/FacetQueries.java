@@ -0,0 +1,73 @@
+package com.example.demo.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// ----------------------------------------------
+// ファセット集計のクエリ（Book = ホット層 / CatalogBook = 両層 のどちらにも使う）
+//   ・どちらのエンティティも author / price の項目名が同じなので、エンティティのクラスだけ差し替える
+//   ・どちらも検索条件を付けた GROUP BY 1 本で集計する（値ごとに count を N 回投げない）
+// ----------------------------------------------
+final class FacetQueries {
+
+    private FacetQueries() {}
+
+    // SELECT author, count(*) FROM ... WHERE ... GROUP BY author ORDER BY count(*) DESC
+    static <T> List<FacetCount> authorFacets(EntityManager em, Class<T> type, Specification<T> spec, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> q = cb.createTupleQuery();
+        Root<T> root = q.from(type);
+
+        Expression<String> author = root.get("author");
+        Expression<Long> count = cb.count(root);
+
+        q.multiselect(author, count)
+                .where(spec.toPredicate(root, q, cb))
+                .groupBy(author)
+                .orderBy(cb.desc(count), cb.asc(author));
+
+        return em.createQuery(q)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(t -> new FacetCount(t.get(0, String.class), t.get(1, Long.class)))
+                .toList();
+    }
+
+    // SELECT price, count(*) FROM ... WHERE ... AND price IS NOT NULL GROUP BY price
+    //   GROUP BY 自体は価格ごと（種類数ぶんの行）にして、区間へのまとめは Java 側で行う
+    //   （「price / ?」で GROUP BY すると、PostgreSQL ではバインド変数入りの式が
+    //     SELECT と GROUP BY で同じ式だと判定されずエラーになるため）
+    static <T> List<FacetCount> priceFacets(EntityManager em, Class<T> type, Specification<T> spec, int bucketWidth) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> q = cb.createTupleQuery();
+        Root<T> root = q.from(type);
+
+        Expression<Integer> price = root.get("price");
+        Expression<Long> count = cb.count(root);
+
+        Predicate where = cb.and(spec.toPredicate(root, q, cb), cb.isNotNull(price));
+        q.multiselect(price, count)
+                .where(where)
+                .groupBy(price);
+
+        // 区間の下限 → 件数（TreeMap なので下限の昇順に並ぶ）
+        Map<Integer, Long> buckets = new TreeMap<>();
+        for (Tuple t : em.createQuery(q).getResultList()) {
+            int from = Math.floorDiv(t.get(0, Integer.class), bucketWidth) * bucketWidth;
+            buckets.merge(from, t.get(1, Long.class), Long::sum);
+        }
+        return buckets.entrySet().stream()
+                .map(e -> new FacetCount(String.valueOf(e.getKey()), e.getValue()))
+                .toList();
+    }
+}
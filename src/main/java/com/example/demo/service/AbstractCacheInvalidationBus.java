@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// ------------------------------------------------------------
+// CacheInvalidationBus の共通部分（購読者の管理と配信）
+// ------------------------------------------------------------
+abstract class AbstractCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractCacheInvalidationBus.class);
+
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void subscribe(String cache, Consumer<String> listener) {
+        listeners.computeIfAbsent(cache, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    // 受信した通知を購読者に配る（key == null なら全件無効化）
+    protected void deliver(String cache, String key) {
+        for (Consumer<String> l : listeners.getOrDefault(cache, List.of())) {
+            try {
+                l.accept(key);
+            } catch (RuntimeException e) {
+                log.warn("cache invalidation listener failed: cache={}, key={}", cache, key, e);
+            }
+        }
+    }
+
+    // 全キャッシュを全件無効化する
+    protected void deliverAll() {
+        listeners.keySet().forEach(cache -> deliver(cache, null));
+    }
+
+    // "cache:key" 形式のメッセージ（NOTIFY の payload）
+    static String encode(String cache, String key) {
+        return cache + ":" + key;
+    }
+
+    protected void deliverEncoded(String message) {
+        int sep = message.indexOf(':');
+        if (sep < 0) return;
+        deliver(message.substring(0, sep), message.substring(sep + 1));
+    }
+}
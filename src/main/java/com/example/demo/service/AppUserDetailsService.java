@@ -2,28 +2,60 @@ package com.example.demo.service;
 
 import com.example.demo.domain.AppUser;
 import com.example.demo.repository.AppUserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 // ------------------------------------------------------------
 // Spring Security がログイン処理のときに利用するサービス
 // username（ログインID）からユーザー情報を取得して返す役割。
 // 必ず "UserDetailsService" を実装する必要がある。
+//
+// UserDetailsPasswordService も実装しておくと、ログイン時にハッシュの形式が古いと
+// Spring Security が updatePassword で新しいハッシュに置き換える（アプリがユーザーを変更する唯一の経路）
 // ------------------------------------------------------------
-public class AppUserDetailsService implements UserDetailsService {
+public class AppUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final AppUserRepository userRepo;
+    private final CacheInvalidationBus cacheBus;
+
+    // ------------------------------------------------------------
+    // ユーザー情報のローカルキャッシュ（username → 取得結果と取得時刻）
+    //   ・ログインのたびに DB を引かないようにする
+    //   ・アプリでの変更（updatePassword）は CacheInvalidationBus で全ノードに通知する
+    //   ・users を SQL で直接変更したときの通知は postgres-cache-invalidation.sql のトリガーが送る
+    //     トリガーが無い環境（H2 など）では通知が来ないので、ttl は既定で 0（キャッシュしない）。
+    //     0 のときは毎回 DB の enabled / password で認証する
+    //   ・ttl を設定した場合も、通知を取りこぼしたときに備えて ttl が過ぎたら取り直す
+    // ------------------------------------------------------------
+    private record Cached(UserDetails user, long loadedAt) {}
+    private final ConcurrentHashMap<String, Cached> cache = new ConcurrentHashMap<>();
+    private final long ttlNanos;
 
     // DI（依存性注入）：AppUserRepository を受け取る
-    public AppUserDetailsService(AppUserRepository userRepo) {
+    public AppUserDetailsService(AppUserRepository userRepo, CacheInvalidationBus cacheBus,
+                                 @Value("${app.user-cache.ttl:PT0S}") Duration ttl) {
         this.userRepo = userRepo;
+        this.cacheBus = cacheBus;
+        this.ttlNanos = ttl.toNanos();
+
+        // key == null は「全件無効化」
+        cacheBus.subscribe(CacheInvalidationBus.USERS, key -> {
+            if (key == null) cache.clear();
+            else cache.remove(key);
+        });
     }
 
     // ------------------------------------------------------------
@@ -35,6 +67,44 @@ public class AppUserDetailsService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
+        // キャッシュしない設定なら毎回 DB から
+        if (ttlNanos <= 0) return load(username);
+
+        // ------------------------------------------------------------
+        // キャッシュにあり、期限内ならそれを使う
+        //
+        // ※ 認証後に Spring Security が eraseCredentials() でパスワードを消すため、
+        //   キャッシュしている本体ではなくコピーを返す
+        // ------------------------------------------------------------
+        long now = System.nanoTime();
+        Cached cached = cache.get(username);
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            return User.withUserDetails(cached.user()).build();
+        }
+
+        UserDetails loaded = load(username);
+        cache.put(username, new Cached(loaded, now));
+        return User.withUserDetails(loaded).build();
+    }
+
+    // ------------------------------------------------------------
+    // パスワードのハッシュを新しい形式に置き換える（ログイン成功時に Spring Security が呼ぶ）
+    //   同じトランザクションで USERS の無効化を通知するので、コミットされたときだけ
+    //   全ノードのキャッシュから古いハッシュが消える
+    // ------------------------------------------------------------
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        AppUser appUser = userRepo.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + user.getUsername()));
+        appUser.setPassword(newPassword);
+        userRepo.save(appUser);
+        cacheBus.publish(CacheInvalidationBus.USERS, appUser.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    private UserDetails load(String username) {
+
         // ------------------------------------------------------------
         // DB から username に一致するユーザーを検索する
         // AppUserRepository の findByUsername を呼び出す
@@ -70,7 +140,7 @@ public class AppUserDetailsService implements UserDetailsService {
         //
         // ※ AppUser.enabled のみ DB の値を使用し、それ以外は常に true としたシンプル仕様。
         // ------------------------------------------------------------
-        return new org.springframework.security.core.userdetails.User(
+        return new User(
                 user.getUsername(),
                 user.getPassword(),   // ここには BCrypt のハッシュ値が入る
                 user.isEnabled(),     // enabled（ログイン可否）
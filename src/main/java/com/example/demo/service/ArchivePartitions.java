@@ -0,0 +1,72 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ------------------------------------------------------------
+// コールド層（book_archive）の年ごとのパーティションを用意する（PostgreSQL で範囲パーティションにしている場合だけ）
+//
+//   ・db/postgres-partitioning.sql で作ったパーティションは固定の年までなので、
+//     アーカイブのたびに（BookTiering.archive）移す対象の年と翌年のパーティションを作っておく
+//     （ないと行が book_archive_default に入り、パーティションの刈り込みも DETACH も効かない）
+//   ・H2・パーティションにしていない PostgreSQL では何もしない
+//   ・作った（または既にあった）年はノードごとに覚えておき、2 回目からは SQL を投げない
+//   ・既に default に入っている行と範囲が重なると PostgreSQL は CREATE を拒否するので、警告だけ出す
+//     （default の行を移してから作り直す手順は postgres-partitioning.sql を参照）
+// ------------------------------------------------------------
+@Component
+public class ArchivePartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivePartitions.class);
+
+    private final JdbcTemplate jdbc;
+    private final Set<Integer> ensuredYears = ConcurrentHashMap.newKeySet();
+    private volatile Boolean partitioned;  // 未確認のときは null
+
+    public ArchivePartitions(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    // -----------------------------------------------------
+    // cutoff（これより前に作成された Book を移す）の前年・同年・翌年のパーティションがなければ作る
+    //   前年 : 年明け直後のアーカイブで移るのは前年に作成された Book
+    //   翌年 : 年が変わった直後のアーカイブに間に合うよう、1 年先まで用意しておく
+    // -----------------------------------------------------
+    public void ensureFor(LocalDate cutoff) {
+        if (!isPartitioned()) return;
+        for (int year = cutoff.getYear() - 1; year <= cutoff.getYear() + 1; year++) {
+            if (ensuredYears.contains(year)) continue;
+            try {
+                jdbc.execute("CREATE TABLE IF NOT EXISTS book_archive_" + year + " PARTITION OF book_archive"
+                        + " FOR VALUES FROM ('" + year + "-01-01') TO ('" + (year + 1) + "-01-01')");
+                ensuredYears.add(year);
+            } catch (DataAccessException e) {
+                log.warn("Could not create partition book_archive_{} (rows for {} stay in book_archive_default)",
+                        year, year, e);
+            }
+        }
+    }
+
+    // book_archive が PostgreSQL のパーティションテーブルか（最初の 1 回だけ確かめる）
+    private boolean isPartitioned() {
+        Boolean p = partitioned;
+        if (p == null) {
+            p = Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) con ->
+                    "PostgreSQL".equalsIgnoreCase(con.getMetaData().getDatabaseProductName())))
+                    && Boolean.TRUE.equals(jdbc.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('book_archive'))",
+                    Boolean.class));
+            partitioned = p;
+        }
+        return p;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.BookChange;
+
+import java.util.List;
+
+// -----------------------------------------------------
+// 一括更新・一括削除で Book がまとめて変わったことを知らせるアプリケーションイベント
+//   ・BookBulkService が 1 チャンク（1 トランザクション）ごとに publish する
+//   ・1 件ずつの BookChangedEvent と違い、変更前後の Book は持たない
+//     代わりに、チャンクの Book を著者・価格ごとに数えた変更前（removed）と変更後（added）を持つ
+//     （集計値は 1 件ずつの更新と同じく、変更前を引いて変更後を足す）
+// -----------------------------------------------------
+public record BookBulkChangedEvent(
+        BookChange.Type type,   // 変更の種類（UPDATED / DELETED）
+        List<Long> bookIds,     // 対象の Book ID
+        List<Group> removed,    // 変更前の著者・価格ごとの冊数
+        List<Group> added       // 変更後の著者・価格ごとの冊数（削除の場合は空）
+) {
+
+    // 著者・価格が同じ Book の冊数
+    public record Group(String author, Integer price, long count) {}
+}
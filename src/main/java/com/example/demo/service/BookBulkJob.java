@@ -0,0 +1,20 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+
+// -----------------------------------------------------
+// 一括更新・一括削除ジョブの状態（読み取り用のスナップショット）
+// -----------------------------------------------------
+public record BookBulkJob(
+        String id,                  // ジョブ ID
+        String operation,           // "update" / "delete"
+        Status status,              // 状態
+        long total,                 // 開始時点で条件に一致した件数（目安）
+        long processed,             // 処理済みの件数
+        String error,               // 失敗した場合の理由
+        LocalDateTime startedAt,    // 開始日時
+        LocalDateTime finishedAt    // 終了日時（実行中は null）
+) {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+}
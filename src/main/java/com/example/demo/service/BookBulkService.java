@@ -0,0 +1,263 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import com.example.demo.domain.BookChange;
+import com.example.demo.repository.BookBulkUpdate;
+import com.example.demo.repository.BookChangeRepository;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.BookSearchCriteria;
+import com.example.demo.repository.BookSpecifications;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ------------------------------------------------------------
+// 条件指定の一括更新・一括削除
+//
+//   ・1 件ずつ get → save / delete せず、集合に対する UPDATE / DELETE で処理する
+//   ・対象は ID のキーセット（id > 前回の最後の ID）で chunk-size 件ずつ区切り、
+//     1 チャンク 1 トランザクションにする（ロックを握る時間と行数を抑える）
+//     各チャンクは DbGuard.write（操作名 bulk-update / bulk-delete）で実行するので、
+//     タイムアウト・遮断は 1 件ずつの更新と同じように効く（遮断中はジョブが FAILED で止まる）
+//       1 チャンクの SQL : ID の取得（FOR UPDATE）/ 変更履歴の INSERT ... SELECT / UPDATE または DELETE
+//   ・変更履歴（差分取得用）とキャッシュの無効化は、1 件ずつの更新と同じように残す
+//   ・統計値は、チャンクの Book を著者・価格ごとに数えた変更前・変更後（GROUP BY 1 本ずつ）を
+//     BookBulkChangedEvent で渡し、コミット後に差分だけ反映する（1 件ずつの更新と同じ）
+//   ・アーカイブ済みの Book があるときは、対象を両層（CatalogBook）から id 順に選び、
+//     コールド層にあるものはホット層へ戻してから処理する（1 件ずつの更新・削除と同じ。BookTiering.restore）
+//
+//   件数の多い処理は非同期ジョブとして実行し、進み具合を job(id) で確認できる
+//   ジョブは 1 本ずつ順番に実行する（一括処理どうしでロックを取り合わないように）
+//   ジョブの状態はこのノードのメモリ（jobs）にだけ持つので、job(id) は実行したノードでしか引けない
+// ------------------------------------------------------------
+@Service
+public class BookBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookBulkService.class);
+
+    // 終了したジョブの状態を残しておく時間
+    static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    private final BookRepository repo;
+    private final BookChangeRepository changeRepo;
+    private final ApplicationEventPublisher events;
+    private final CacheInvalidationBus cacheBus;
+    private final BookTiering tiering;
+    private final DbGuard db;
+    private final int chunkSize;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "book-bulk");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public BookBulkService(BookRepository repo, BookChangeRepository changeRepo, ApplicationEventPublisher events,
+                           CacheInvalidationBus cacheBus, BookTiering tiering,
+                           DbGuard db,
+                           @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.repo = repo;
+        this.changeRepo = changeRepo;
+        this.events = events;
+        this.cacheBus = cacheBus;
+        this.tiering = tiering;
+        this.db = db;
+        this.chunkSize = chunkSize;
+    }
+
+    // -----------------------------------------------------
+    // 同期実行（終わるまで待って、処理件数を返す）
+    // -----------------------------------------------------
+    public long update(BookSearchCriteria criteria, BookBulkUpdate update) {
+        return run(newJob("update", criteria), criteria, BookChange.Type.UPDATED, update);
+    }
+
+    public long delete(BookSearchCriteria criteria) {
+        return run(newJob("delete", criteria), criteria, BookChange.Type.DELETED, null);
+    }
+
+    // -----------------------------------------------------
+    // 非同期実行（すぐにジョブの状態を返す）
+    // -----------------------------------------------------
+    public BookBulkJob submitUpdate(BookSearchCriteria criteria, BookBulkUpdate update) {
+        return submit(newJob("update", criteria), criteria, BookChange.Type.UPDATED, update);
+    }
+
+    public BookBulkJob submitDelete(BookSearchCriteria criteria) {
+        return submit(newJob("delete", criteria), criteria, BookChange.Type.DELETED, null);
+    }
+
+    // ジョブの状態（存在しない・保持期間切れの場合は例外）
+    public BookBulkJob job(String id) {
+        Job job = jobs.get(id);
+        if (job == null) throw new IllegalArgumentException("Bulk job not found: " + id);
+        return job.snapshot();
+    }
+
+    private BookBulkJob submit(Job job, BookSearchCriteria criteria, BookChange.Type type, BookBulkUpdate update) {
+        executor.execute(() -> {
+            try {
+                run(job, criteria, type, update);
+            } catch (RuntimeException e) {
+                log.warn("Bulk {} job {} failed after {} books", job.operation, job.id, job.processed.get(), e);
+            }
+        });
+        return job.snapshot();
+    }
+
+    private Job newJob(String operation, BookSearchCriteria criteria) {
+        removeExpiredJobs();
+        long total = tiering.hasArchived()
+                ? tiering.count(criteria)
+                : repo.count(BookSpecifications.matching(criteria));
+        Job job = new Job(UUID.randomUUID().toString(), operation, total);
+        jobs.put(job.id, job);
+        return job;
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(limit));
+    }
+
+    // -----------------------------------------------------
+    // チャンクごとに処理する
+    //   途中で失敗しても、コミット済みのチャンクはそのまま残る（processed に件数が出る）
+    // -----------------------------------------------------
+    private long run(Job job, BookSearchCriteria criteria, BookChange.Type type, BookBulkUpdate update) {
+        Specification<Book> spec = BookSpecifications.matching(criteria);
+        String operation = "bulk-" + job.operation;
+        try {
+            long after = 0;
+            while (true) {
+                long from = after;
+                Chunk chunk = db.write(operation, () -> applyChunk(criteria, spec, from, type, update));
+
+                job.processed.addAndGet(chunk.ids().size());
+                after = chunk.lastId();
+                if (!chunk.more()) break;
+            }
+            job.finish(BookBulkJob.Status.COMPLETED, null);
+            return job.processed.get();
+        } catch (RuntimeException e) {
+            job.finish(BookBulkJob.Status.FAILED, e.getMessage());
+            throw e;
+        }
+    }
+
+    // 1 チャンクの結果（ids : 処理した ID、lastId : 次のチャンクの起点、more : 続きがあるか）
+    private record Chunk(List<Long> ids, long lastId, boolean more) {}
+
+    // 1 チャンク分（1 トランザクションの中で呼ばれる）
+    private Chunk applyChunk(BookSearchCriteria criteria, Specification<Book> spec, long afterId,
+                             BookChange.Type type, BookBulkUpdate update) {
+        Chunk chunk = tiering.hasArchived()
+                ? lockAcrossTiers(criteria, spec, afterId)
+                : lockHot(spec, afterId);
+        List<Long> ids = chunk.ids();
+        if (ids.isEmpty()) return chunk;
+
+        List<BookBulkChangedEvent.Group> before = groups(ids);
+        List<BookBulkChangedEvent.Group> after;
+        if (type == BookChange.Type.DELETED) {
+            changeRepo.recordAll(ids, type.name()); // 行を消す前に変更履歴を残す
+            repo.deleteAllByIdInBatch(ids);
+            after = List.of();
+        } else {
+            repo.updateByIds(ids, update, LocalDateTime.now());
+            changeRepo.recordAll(ids, type.name());
+            after = groups(ids);
+        }
+
+        // 他ノード・自ノードのキャッシュ無効化と、SSE・統計値などへの通知（どちらもコミット後に届く）
+        for (Long id : ids) {
+            cacheBus.publish(CacheInvalidationBus.BOOKS, String.valueOf(id));
+        }
+        events.publishEvent(new BookBulkChangedEvent(type, ids, before, after));
+        return chunk;
+    }
+
+    // ids の Book の著者・価格ごとの冊数（統計値の差分用）
+    private List<BookBulkChangedEvent.Group> groups(List<Long> ids) {
+        return repo.countByAuthorAndPrice(ids).stream()
+                .map(r -> new BookBulkChangedEvent.Group(
+                        (String) r[0], (Integer) r[1], ((Number) r[2]).longValue()))
+                .toList();
+    }
+
+    // ホット層だけのとき：条件に一致する次の chunk-size 件をロックして取る
+    private Chunk lockHot(Specification<Book> spec, long afterId) {
+        List<Long> ids = repo.lockIdsAfter(spec, afterId, chunkSize);
+        long lastId = ids.isEmpty() ? afterId : ids.get(ids.size() - 1);
+        return new Chunk(ids, lastId, ids.size() == chunkSize);
+    }
+
+    // コールド層もあるとき：両層から id 順に次の chunk-size 件を選び、ホット層でロックする
+    //   ID は層を移っても変わらないので、id のキーセットで区切れば移動中の行も取りこぼさない
+    //   ① ホット層にある行をロック（同時に走っているアーカイブがあれば、そのコミットを待つ）
+    //   ② 残りのうちコールド層にあるものをホット層へ戻し、条件を確かめてロックする
+    private Chunk lockAcrossTiers(BookSearchCriteria criteria, Specification<Book> spec, long afterId) {
+        List<Long> candidates = tiering.findIdsAfter(criteria, afterId, chunkSize);
+        if (candidates.isEmpty()) return new Chunk(List.of(), afterId, false);
+
+        List<Long> ids = new ArrayList<>(repo.lockIds(spec, candidates));
+        Set<Long> hot = new HashSet<>(ids);
+        List<Long> rest = candidates.stream().filter(id -> !hot.contains(id)).toList();
+        ids.addAll(repo.lockIds(spec, tiering.restore(rest)));
+        ids.sort(null);
+        return new Chunk(ids, candidates.get(candidates.size() - 1), candidates.size() == chunkSize);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // -----------------------------------------------------
+    // 実行中のジョブの状態（変わりうる値は atomic / volatile）
+    // -----------------------------------------------------
+    private static final class Job {
+        final String id;
+        final String operation;
+        final long total;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong processed = new AtomicLong();
+        volatile BookBulkJob.Status status = BookBulkJob.Status.RUNNING;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Job(String id, String operation, long total) {
+            this.id = id;
+            this.operation = operation;
+            this.total = total;
+        }
+
+        void finish(BookBulkJob.Status status, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        BookBulkJob snapshot() {
+            return new BookBulkJob(id, operation, status, total, processed.get(), error, startedAt, finishedAt);
+        }
+    }
+}
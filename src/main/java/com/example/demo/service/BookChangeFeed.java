@@ -0,0 +1,18 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import com.example.demo.domain.BookChange;
+
+import java.util.List;
+
+// -----------------------------------------------------
+// 差分取得（BookService.changesSince）の結果
+//   ・nextToken : 次回の since に渡す値（今回返した最後の変更番号）
+//   ・hasMore   : まだ続きの変更がある場合 true（すぐに次を取りに来てよい）
+//   ・entries   : Book ごとに最新の変更 1 件だけにまとめたもの
+// -----------------------------------------------------
+public record BookChangeFeed(long nextToken, boolean hasMore, List<Entry> entries) {
+
+    // Book 1 件分の変更（type が DELETED の場合 book は null）
+    public record Entry(long seq, BookChange.Type type, Long bookId, Book book) {}
+}
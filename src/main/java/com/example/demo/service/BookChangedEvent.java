@@ -0,0 +1,20 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import com.example.demo.domain.BookChange;
+
+// -----------------------------------------------------
+// Book が作成・更新・削除されたことを知らせるアプリケーションイベント
+//   ・BookService が変更履歴を記録したあとに publish する
+//   ・@TransactionalEventListener で受け取れば、コミット後にだけ処理できる
+//   ・book は削除（DELETED）の場合 null
+//   ・previous は変更前の値のコピー（作成（CREATED）の場合 null）
+//     集計値を差分で更新する処理などが「何から何に変わったか」を知るために使う
+// -----------------------------------------------------
+public record BookChangedEvent(
+        long seq,               // 変更番号（book_change.seq）
+        BookChange.Type type,   // 変更の種類
+        Long bookId,            // 対象の Book ID
+        Book book,              // 変更後の Book（削除時は null）
+        Book previous           // 変更前の Book（作成時は null）
+) {}
@@ -0,0 +1,183 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// ------------------------------------------------------------
+// 同時に届いた 1 件ずつの作成（POST /api/books）をまとめて 1 トランザクションで保存する（グループコミット）
+//
+//   ・リクエストのスレッドはキュー（ロックなしの ConcurrentLinkedQueue）に積んで CompletableFuture を返すだけ
+//   ・専用スレッド 1 本がキューから取り出し、max-batch 件たまるか、最初の 1 件から max-delay たったら
+//     BookService.createAll で保存してコミットし、各リクエストに採番済みの Book を返す
+//     DB が遅いほど待っている間にキューがたまり、1 回のコミットでまとめられる件数が増える
+//   ・失敗の切り分け : まとめた保存が失敗したら、1 件ずつ別トランザクションでやり直す
+//                      （不正な 1 件のせいで同じバッチの他のリクエストが失敗しないように）
+//                      DB が使えない（DatabaseUnavailableException）場合はやり直さず全件 503
+//                      Error などそれ以外の失敗は、そのバッチの全件を失敗させて専用スレッドは動かし続ける
+//   ・キューが max-queue 件を超えたら 503（Retry-After: 1）で断る
+//   ・変更履歴・イベント・キャッシュ無効化は 1 件ずつの作成と同じ（recordChange）
+//
+//   ※ Book の ID は IDENTITY 採番なので、INSERT 自体は 1 行ずつ発行される（JDBC バッチにはならない）
+//     まとめて減らせるのはコミット（WAL の書き出し）とトランザクションの往復
+//
+//   app.create-batching.enabled = false（既定）のときは、その場で BookService.create を呼ぶ
+// ------------------------------------------------------------
+@Service
+public class BookCreateBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BookCreateBatcher.class);
+
+    private record Pending(Book book, CompletableFuture<Book> result) {}
+
+    private final BookService service;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final int maxQueue;
+    private final DistributionSummary batchSizes;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public BookCreateBatcher(BookService service, MeterRegistry meters,
+                             @Value("${app.create-batching.enabled:false}") boolean enabled,
+                             @Value("${app.create-batching.max-batch:64}") int maxBatch,
+                             @Value("${app.create-batching.max-delay:PT0.0005S}") Duration maxDelay,
+                             @Value("${app.create-batching.max-queue:10000}") int maxQueue) {
+        this.service = service;
+        this.enabled = enabled;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxQueue = maxQueue;
+        this.batchSizes = DistributionSummary.builder("book.create.batch.size")
+                .description("Number of creates committed in one transaction")
+                .register(meters);
+
+        if (enabled) {
+            flusher = new Thread(this::flushLoop, "book-create-batcher");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    // まとめて保存する設定かどうか（false なら submit はその場で保存して、完了済みの結果を返す）
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // -----------------------------------------------------
+    // 作成を依頼する（保存・コミットされたら、採番済みの Book で完了する）
+    // -----------------------------------------------------
+    public CompletableFuture<Book> submit(Book book) {
+        if (flusher == null || !running) {
+            return CompletableFuture.completedFuture(service.create(book));
+        }
+        if (queued.get() >= maxQueue) {
+            throw new DatabaseUnavailableException("Too many pending creates", Duration.ofSeconds(1), null);
+        }
+        Pending p = new Pending(book, new CompletableFuture<>());
+        queue.offer(p);
+        queued.incrementAndGet();
+        LockSupport.unpark(flusher);
+        return p.result();
+    }
+
+    // -----------------------------------------------------
+    // 専用スレッド：最初の 1 件を待ち、max-batch 件か max-delay まで集めて保存する
+    // -----------------------------------------------------
+    private void flushLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            Pending first = queue.poll();
+            if (first == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + maxDelayNanos;
+            while (batch.size() < maxBatch) {
+                Pending p = queue.poll();
+                if (p != null) {
+                    batch.add(p);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) break;
+                LockSupport.parkNanos(this, remaining);
+            }
+            queued.addAndGet(-batch.size());
+            flushOrFail(batch);
+            batch.clear();
+        }
+    }
+
+    // flush が想定していない失敗（Error など）でも、まだ完了していないリクエストを失敗させて戻る
+    // （ここで例外が抜けると専用スレッドが止まり、以降の作成が誰にも保存されずに待ち続ける）
+    private void flushOrFail(List<Pending> batch) {
+        try {
+            flush(batch);
+        } catch (Throwable t) {
+            log.error("Batched create of {} books failed", batch.size(), t);
+            batch.forEach(p -> p.result().completeExceptionally(t));
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        try {
+            // 失敗してやり直すときに採番済みの ID が残らないよう、コピーを保存する
+            List<Book> saved = service.createAll(batch.stream().map(p -> p.book().copy()).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(saved.get(i));
+            }
+        } catch (DatabaseUnavailableException e) {
+            batch.forEach(p -> p.result().completeExceptionally(e));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.debug("Batched create of {} books failed; retrying one by one", batch.size(), e);
+            for (Pending p : batch) {
+                try {
+                    p.result().complete(service.create(p.book().copy()));
+                } catch (RuntimeException one) {
+                    p.result().completeExceptionally(one);
+                }
+            }
+        }
+    }
+
+    // 終了時はキューに残っている分を保存してから止める
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        if (flusher == null) return;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+
+        // 止める直前に積まれた分（専用スレッドが見逃したもの）はこのスレッドで保存する
+        List<Pending> rest = new ArrayList<>();
+        for (Pending p; (p = queue.poll()) != null; ) rest.add(p);
+        if (!rest.isEmpty()) flushOrFail(rest);
+    }
+}
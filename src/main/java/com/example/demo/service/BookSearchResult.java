@@ -0,0 +1,15 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import com.example.demo.repository.FacetCount;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+// -----------------------------------------------------
+// 複合条件検索（BookService.search）の結果
+//   ・page         : 検索結果のページ
+//   ・authors      : 著者ごとの件数（件数の多い順）
+//   ・priceBuckets : 価格帯ごとの件数（value は区間の下限、昇順）
+// -----------------------------------------------------
+public record BookSearchResult(Page<Book> page, List<FacetCount> authors, List<FacetCount> priceBuckets) {}
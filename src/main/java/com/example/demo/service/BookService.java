@@ -1,42 +1,140 @@
 package com.example.demo.service;
 
 import com.example.demo.domain.Book;
+import com.example.demo.domain.BookChange;
+import com.example.demo.repository.BookChangeRepository;
 import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.BookSearchCriteria;
+import com.example.demo.repository.BookSpecifications;
+import com.example.demo.repository.FacetCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service  // ← このクラスが「ビジネスロジック（サービス層）」であることを示すアノテーション
 public class BookService {
 
+    // 差分取得で 1 回に返す変更件数の上限
+    static final int MAX_CHANGES = 1000;
+
+    // 著者ファセットで返す件数
+    static final int AUTHOR_FACET_LIMIT = 20;
+
     // -------------------------
     // フィールド
     // -------------------------
     private final BookRepository repo;
+    private final BookChangeRepository changeRepo;
+    private final ApplicationEventPublisher events;
+    private final CacheInvalidationBus cacheBus;
+    private final BookTiering tiering;
+
+    // トランザクション・タイムアウト・遮断（各メソッドは db.read / db.write の中で DB に触る）
+    private final DbGuard db;
+
+    // 一覧・1 件取得をスナップショットから返す（DB が使えないとき / 読み取り中心のノード）
+    private final CatalogSnapshots snapshots;
+
+    // 差分取得で、seq の欠番を「まだコミットされていない変更」とみなして待つ時間
+    private final Duration inFlightLag;
 
     // コンストラクタ注入（DI）
     // Spring が BookRepository の実装クラスを自動で渡してくれる
-    public BookService(BookRepository repo) {
+    public BookService(BookRepository repo, BookChangeRepository changeRepo, ApplicationEventPublisher events,
+                       CacheInvalidationBus cacheBus, BookTiering tiering, DbGuard db, CatalogSnapshots snapshots,
+                       @Value("${app.changes.in-flight-lag:PT30S}") Duration inFlightLag) {
         this.repo = repo;
+        this.changeRepo = changeRepo;
+        this.events = events;
+        this.cacheBus = cacheBus;
+        this.tiering = tiering;
+        this.db = db;
+        this.snapshots = snapshots;
+        this.inFlightLag = inFlightLag;
     }
 
     // -----------------------------------------------------
     // 一覧取得（検索 + ページング）
+    //   アーカイブ済みの Book があるときは、コールド層も含めて返す（BookTiering）
+    //   設定によってはスナップショットから返す（CatalogSnapshots）
     // -----------------------------------------------------
     public Page<Book> list(String q, Pageable pageable) {
-        // q が null または 空文字 の場合は全件検索
-        // 検索ワードがある場合は title に部分一致する書籍を検索
-        return (q == null || q.isBlank())
-                ? repo.findAll(pageable)  // 全件取得（ページング付き）
-                : repo.findByTitleContainingIgnoreCase(q, pageable); // 部分一致検索（ページング付き）
+        // 並び指定がなければ id 順（コールド層を含む場合・スナップショットから返す場合も同じ順）
+        Pageable ordered = BookTiering.withDefaultOrder(pageable);
+        return snapshots.serve(() -> db.read("list", () -> {
+            if (tiering.hasArchived()) {
+                return tiering.list(q, ordered);
+            }
+
+            // q が null または 空文字 の場合は全件検索
+            // 検索ワードがある場合は title に部分一致する書籍を検索
+            return (q == null || q.isBlank())
+                    ? repo.findAll(ordered)  // 全件取得（ページング付き）
+                    : repo.findByTitleContainingIgnoreCase(q, ordered); // 部分一致検索（ページング付き）
+        }), s -> s.list(q, ordered));
+    }
+
+    // -----------------------------------------------------
+    // 複合条件検索（+ ファセット集計）
+    //   ・指定された条件だけで WHERE 句を組み立てる（BookSpecifications）
+    //   ・facets = true の場合、同じ条件で著者別・価格帯別の件数を GROUP BY 各 1 本で集計する
+    //   ・アーカイブ済みの Book があるときは、両層（CatalogBook）を検索・集計する（BookTiering）
+    //     （作成日時などの条件がコールド層に届くと、ホット層だけでは結果も件数も足りなくなるため）
+    // -----------------------------------------------------
+    public BookSearchResult search(BookSearchCriteria criteria, Pageable pageable,
+                                   boolean facets, int priceBucketWidth) {
+        Pageable ordered = BookTiering.withDefaultOrder(pageable);
+        return db.read("search", () -> {
+            if (tiering.hasArchived()) {
+                return tiering.search(criteria, ordered, facets, priceBucketWidth);
+            }
+            Specification<Book> spec = BookSpecifications.matching(criteria);
+            Page<Book> page = repo.findAll(spec, ordered);
+
+            if (!facets) {
+                return new BookSearchResult(page, List.of(), List.of());
+            }
+            List<FacetCount> authors = repo.authorFacets(spec, AUTHOR_FACET_LIMIT);
+            List<FacetCount> prices = repo.priceFacets(spec, priceBucketWidth);
+            return new BookSearchResult(page, authors, prices);
+        });
     }
 
     // -----------------------------------------------------
     // 1件取得（存在しない場合は例外）
+    //   ホット層になければアーカイブ済み（コールド層）を見る
+    //   設定によってはスナップショットから返す（CatalogSnapshots）
     // -----------------------------------------------------
     public Book get(Long id) {
-        return repo.findById(id)
+        return snapshots.serve(() -> db.read("get", () -> repo.findById(id)
+                .or(() -> tiering.findArchived(id))
                 // 取得できなかった場合は例外（404 Not Found として扱われやすい）
+                .orElseThrow(() -> new IllegalArgumentException("Book not found: " + id))),
+                s -> s.get(id));
+    }
+
+    // 更新・削除の対象を取得する
+    //   アーカイブ済み（コールド層）の Book は、先にホット層へ戻してから更新・削除する
+    //   （他のリクエストが同時に戻した場合も、その完了を待ってからホット層を読み直す）
+    private Book getWritable(Long id) {
+        return repo.findById(id)
+                .or(() -> {
+                    tiering.restore(List.of(id));
+                    return repo.findById(id);
+                })
                 .orElseThrow(() -> new IllegalArgumentException("Book not found: " + id));
     }
 
@@ -44,35 +142,150 @@ public class BookService {
     // 作成（保存）
     // -----------------------------------------------------
     public Book create(Book b) {
-        return repo.save(b);  // save は INSERT を発行する
+        return db.write("create", () -> {
+            Book saved = repo.save(b);  // save は INSERT を発行する
+            recordChange(BookChange.Type.CREATED, saved.getId(), saved, null);
+            return saved;
+        });
+    }
+
+    // -----------------------------------------------------
+    // まとめて作成（1 トランザクション = コミット 1 回）。BookCreateBatcher から呼ばれる
+    //   1 件でも失敗すると全体がロールバックされる（呼び出し側で 1 件ずつやり直す）
+    // -----------------------------------------------------
+    public List<Book> createAll(List<Book> books) {
+        return db.write("create-batch", () -> {
+            List<Book> saved = new ArrayList<>(books.size());
+            for (Book b : books) {
+                Book s = repo.save(b);
+                recordChange(BookChange.Type.CREATED, s.getId(), s, null);
+                saved.add(s);
+            }
+            return saved;
+        });
     }
 
     // -----------------------------------------------------
     // 更新（部分更新）
     // -----------------------------------------------------
     public Book update(Long id, Book patch) {
-        // まず現在のデータを取得（存在しなければ例外）
-        Book cur = get(id);
+        return db.write("update", () -> {
+            // まず現在のデータを取得（存在しなければ例外）
+            Book cur = getWritable(id);
+            Book before = cur.copy(); // 変更前の値を残しておく（集計の差分更新用）
 
-        // patch に入っている値だけ上書きする（null の場合は無視する）
-        if (patch.getTitle() != null)
-            cur.setTitle(patch.getTitle());
+            // patch に入っている値だけ上書きする（null の場合は無視する）
+            if (patch.getTitle() != null)
+                cur.setTitle(patch.getTitle());
 
-        if (patch.getAuthor() != null)
-            cur.setAuthor(patch.getAuthor());
+            if (patch.getAuthor() != null)
+                cur.setAuthor(patch.getAuthor());
 
-        if (patch.getPrice() != null)
-            cur.setPrice(patch.getPrice());
+            if (patch.getPrice() != null)
+                cur.setPrice(patch.getPrice());
 
-        // 上書き後、DB に保存（UPDATE）
-        return repo.save(cur);
+            // 上書き後、DB に保存（UPDATE）
+            // flush して @PreUpdate を走らせ、updatedAt を確定させてから変更を記録する
+            Book saved = repo.saveAndFlush(cur);
+            recordChange(BookChange.Type.UPDATED, saved.getId(), saved, before);
+            return saved;
+        });
     }
 
     // -----------------------------------------------------
     // 削除
     // -----------------------------------------------------
     public void delete(Long id) {
-        // get(id) が NOT FOUND の場合は例外を投げて終了
-        repo.delete(get(id)); // 取得した Book を削除
+        db.write("delete", () -> {
+            // 対象が NOT FOUND（またはアーカイブ済み）の場合は例外を投げて終了
+            Book cur = getWritable(id);
+            repo.delete(cur); // 取得した Book を削除
+
+            // 行は消えるが、変更履歴にトゥームストーンを残す
+            recordChange(BookChange.Type.DELETED, id, null, cur.copy());
+            return null;
+        });
+    }
+
+    // -----------------------------------------------------
+    // 差分取得（since より後に作成・更新・削除された Book）
+    //   ・book_change を seq の範囲で読むので O(変更件数)
+    //   ・同じ Book に複数の変更がある場合は最新の 1 件にまとめる
+    //   ・最新の Book は findAllById で 1 回のクエリでまとめて取得する
+    //
+    //   ※ IDENTITY の採番順とコミット順は一致しない（seq 10 を取ったトランザクションが、
+    //     seq 11 のトランザクションより後にコミットされることがある）
+    //     トークンが未コミットの seq を追い越すとその変更は二度と返せないので、
+    //     seq の欠番（= まだコミットされていないかもしれない変更）の手前で止める
+    //     欠番の後ろの変更が in-flight-lag より古ければ、欠番はロールバックによるものとみなして先へ進む
+    //     （in-flight-lag は書き込みトランザクションの最長時間より長くしておくこと）
+    // -----------------------------------------------------
+    public BookChangeFeed changesSince(long since, int limit) {
+        return db.read("changes", () -> {
+            int size = Math.max(1, Math.min(limit, MAX_CHANGES));
+
+            // 1 件多く読んで「続きがあるか」を判定する
+            List<BookChange> changes = changeRepo.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(size + 1));
+            changes = changes.subList(0, committedPrefix(since, changes, LocalDateTime.now().minus(inFlightLag)));
+            boolean hasMore = changes.size() > size;
+            if (hasMore) changes = changes.subList(0, size);
+
+            // Book ID ごとに最新の変更だけを残す（remove → put で末尾に移動させる）
+            Map<Long, BookChange> latest = new LinkedHashMap<>();
+            for (BookChange c : changes) {
+                latest.remove(c.getBookId());
+                latest.put(c.getBookId(), c);
+            }
+
+            // 削除以外の Book をまとめて取得する
+            List<Long> ids = latest.values().stream()
+                    .filter(c -> c.getType() != BookChange.Type.DELETED)
+                    .map(BookChange::getBookId)
+                    .toList();
+            Map<Long, Book> books = repo.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+            // ホット層にない分はアーカイブ済みかもしれない（コールド層からまとめて取得）
+            if (books.size() < ids.size()) {
+                List<Long> missing = ids.stream().filter(id -> !books.containsKey(id)).toList();
+                tiering.findArchived(missing).forEach(b -> books.put(b.getId(), b));
+            }
+
+            List<BookChangeFeed.Entry> entries = new ArrayList<>(latest.size());
+            for (BookChange c : latest.values()) {
+                Book b = books.get(c.getBookId());
+                // 更新後に削除されていて、削除がまだこのページに入っていない場合は削除として返す
+                BookChange.Type type = (b == null) ? BookChange.Type.DELETED : c.getType();
+                entries.add(new BookChangeFeed.Entry(c.getSeq(), type, c.getBookId(), b));
+            }
+
+            long nextToken = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+            return new BookChangeFeed(nextToken, hasMore, entries);
+        });
+    }
+
+    // 欠番のない先頭部分の件数（since + 1 から seq が連続している範囲）
+    //   欠番の直後の変更が cutoff より古い場合は、欠番を埋まらないもの（ロールバック）として読み進める
+    static int committedPrefix(long since, List<BookChange> changes, LocalDateTime cutoff) {
+        long expected = since + 1;
+        for (int i = 0; i < changes.size(); i++) {
+            BookChange c = changes.get(i);
+            if (c.getSeq() != expected
+                    && (c.getChangedAt() == null || c.getChangedAt().isAfter(cutoff))) {
+                return i;
+            }
+            expected = c.getSeq() + 1;
+        }
+        return changes.size();
+    }
+
+    // -----------------------------------------------------
+    // 変更履歴を記録し、イベントを publish する（同じトランザクション内）
+    //   他ノードのキャッシュへの無効化通知も同じトランザクションで出す（コミット時に配信される）
+    // -----------------------------------------------------
+    private void recordChange(BookChange.Type type, Long bookId, Book book, Book previous) {
+        BookChange change = changeRepo.save(new BookChange(bookId, type));
+        events.publishEvent(new BookChangedEvent(change.getSeq(), type, bookId, book, previous));
+        cacheBus.publish(CacheInvalidationBus.BOOKS, String.valueOf(bookId));
     }
 }
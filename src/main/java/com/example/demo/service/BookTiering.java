@@ -0,0 +1,284 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.ArchivedBook;
+import com.example.demo.domain.Book;
+import com.example.demo.domain.CatalogBook;
+import com.example.demo.repository.ArchivedBookRepository;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.BookSearchCriteria;
+import com.example.demo.repository.BookSpecifications;
+import com.example.demo.repository.CatalogBookRepository;
+import com.example.demo.repository.FacetCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// ------------------------------------------------------------
+// ホット層（book）/ コールド層（book_archive）の振り分け
+//
+//   ・作成から app.tiering.hot-age を過ぎた Book を、定期的にコールド層へ移す
+//     （INSERT ... SELECT + DELETE を batch-size 件ずつ、1 バッチ 1 トランザクション）
+//   ・書き込み（作成・更新・削除）はホット層だけ。アーカイブ済みの Book を更新・削除するときは
+//     先にホット層へ戻す（restore。作成日時は古いままなので、次のアーカイブで再びコールド層へ移る）
+//   ・読み取りは、ホット層だけで済むときはホット層だけを見る
+//       - 新しい順の一覧               : ホット層の最古がコールド層の最新より新しいと確かめられたときだけ
+//                                        ホット層 → コールド層の順につなげてページを作る
+//                                        （戻した Book・アーカイブの途中などで崩れていれば UNION ALL）
+//       - それ以外の並び・タイトル検索  : 両層の UNION ALL（CatalogBook）を見る
+//       - 並び指定なし                 : id 順（ホット層だけのとき・スナップショットと同じ）
+//       - ID 指定                      : ホット層になければコールド層を見る
+//   ・複合条件検索（/search）・ファセット・一括処理の対象選びも、コールド層があれば両層を見る
+//   ・複数ノードで同時にアーカイブしても、移す行は FOR UPDATE SKIP LOCKED で取るので重ならない
+//   ・コールド層の有無（hasArchived）はノードごとにキャッシュした件数で判断するが、他ノードのアーカイブも
+//     反映されるよう count-refresh ごとに DB から数え直す。0 件の間は毎回（安い）存在確認をする
+//     ページの総件数にはこのキャッシュを使わない（その都度数える）
+//   ・lazy プロファイルでも起動時に作る（@Scheduled のアーカイブを始めるため）
+// ------------------------------------------------------------
+@Service
+@Lazy(false)
+public class BookTiering {
+
+    private static final Logger log = LoggerFactory.getLogger(BookTiering.class);
+
+    // 新しい順（ホット層 → コールド層の順につなげられる並び）
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    // 並び指定がないときの並び
+    static final Sort DEFAULT_ORDER = Sort.by("id");
+
+    private final BookRepository repo;
+    private final ArchivedBookRepository archiveRepo;
+    private final CatalogBookRepository catalogRepo;
+    private final ArchivePartitions partitions;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final Duration hotAge;
+    private final int batchSize;
+    private final long countRefreshNanos;
+
+    // コールド層の件数と数えた時刻（System.nanoTime）
+    private record ArchivedCount(long value, long countedAt) {}
+    private volatile ArchivedCount archivedCount;
+
+    public BookTiering(BookRepository repo, ArchivedBookRepository archiveRepo, CatalogBookRepository catalogRepo,
+                       ArchivePartitions partitions, PlatformTransactionManager txManager,
+                       @Value("${app.tiering.enabled:true}") boolean enabled,
+                       @Value("${app.tiering.hot-age:P365D}") Duration hotAge,
+                       @Value("${app.tiering.batch-size:1000}") int batchSize,
+                       @Value("${app.tiering.count-refresh:PT1M}") Duration countRefresh) {
+        this.repo = repo;
+        this.archiveRepo = archiveRepo;
+        this.catalogRepo = catalogRepo;
+        this.partitions = partitions;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.hotAge = hotAge;
+        this.batchSize = batchSize;
+        this.countRefreshNanos = countRefresh.toNanos();
+    }
+
+    // -----------------------------------------------------
+    // コールド層に 1 件でもあるか
+    //   キャッシュした件数が 0 でも、他のノードがアーカイブしたばかりかもしれないので DB で確かめる
+    //   （ID を 1 件読むだけなので count より安い）
+    // -----------------------------------------------------
+    public boolean hasArchived() {
+        if (archivedCount() > 0) return true;
+        if (archiveRepo.findIds(Limit.of(1)).isEmpty()) return false;
+        return refreshArchivedCount() > 0;
+    }
+
+    // コールド層の件数（count-refresh より古ければ DB から数え直す）
+    public long archivedCount() {
+        ArchivedCount c = archivedCount;
+        if (c == null || System.nanoTime() - c.countedAt() >= countRefreshNanos) {
+            return refreshArchivedCount();
+        }
+        return c.value();
+    }
+
+    private long refreshArchivedCount() {
+        long n = archiveRepo.count();
+        archivedCount = new ArchivedCount(n, System.nanoTime());
+        return n;
+    }
+
+    // -----------------------------------------------------
+    // 一覧（両層）
+    //   新しい順で層の境目が確かめられればホット層のページの後ろにコールド層を続け、それ以外は UNION ALL で読む
+    // -----------------------------------------------------
+    public Page<Book> list(String q, Pageable pageable) {
+        pageable = withDefaultOrder(pageable);
+        if ((q == null || q.isBlank()) && isNewestFirst(pageable.getSort())) {
+            Optional<Page<Book>> page = listNewestFirst(pageable);
+            if (page.isPresent()) return page.get();
+        }
+        Page<CatalogBook> page = (q == null || q.isBlank())
+                ? catalogRepo.findAll(pageable)
+                : catalogRepo.findByTitleContainingIgnoreCase(q, pageable);
+        return page.map(CatalogBook::toBook);
+    }
+
+    // ホット層の作成日時がすべてコールド層より新しければ、ホット層を読み切った位置からコールド層を読めばよい
+    //   アーカイブは SKIP LOCKED で飛ばした行を残すことがあり、更新・削除のために戻した Book もあるので、
+    //   境目はリクエストごとに DB で確かめる（最古・最新はどちらも created_at のインデックスの端を読むだけ）
+    //   確かめられなければ empty（UNION ALL で読む）
+    //   件数も同じ SQL で数えるので、アーカイブの直後でもページ数がずれない
+    private Optional<Page<Book>> listNewestFirst(Pageable pageable) {
+        Object[] b = repo.tierBoundary().get(0);
+        long hotCount = ((Number) b[0]).longValue();
+        long total = hotCount + ((Number) b[1]).longValue();
+        LocalDateTime hotOldest = toLocalDateTime(b[2]);
+        LocalDateTime archivedNewest = toLocalDateTime(b[3]);
+        if (hotOldest != null && archivedNewest != null && !hotOldest.isAfter(archivedNewest)) {
+            return Optional.empty();
+        }
+
+        // ページの前半（または全部）がホット層
+        List<Book> rows = new ArrayList<>(pageable.getPageSize());
+        if (pageable.getOffset() < hotCount) {
+            rows.addAll(repo.findAllByOrderByCreatedAtDescIdDesc(
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())));
+        }
+
+        // ページの後半（または全部）がコールド層
+        int need = pageable.getPageSize() - rows.size();
+        if (need > 0) {
+            long offset = Math.max(0, pageable.getOffset() - hotCount);
+            archiveRepo.findNewestFirst(offset, need).forEach(a -> rows.add(a.toBook()));
+        }
+        Page<Book> page = new PageImpl<>(rows, pageable, total);
+        return Optional.of(page);
+    }
+
+    // ネイティブクエリの日時（ドライバによって Timestamp / LocalDateTime のどちらでも来る）
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof java.sql.Timestamp t) return t.toLocalDateTime();
+        return (LocalDateTime) value;
+    }
+
+    // createdAt の降順（id 降順が続いてもよい）
+    static boolean isNewestFirst(Sort sort) {
+        if (sort.isUnsorted()) return false;
+        List<Sort.Order> orders = sort.toList();
+        if (!orders.get(0).getProperty().equals("createdAt") || orders.get(0).isAscending()) return false;
+        return orders.size() == 1
+                || (orders.size() == 2 && orders.get(1).getProperty().equals("id") && orders.get(1).isDescending());
+    }
+
+    // 並び指定がなければ id 順にする（ページをまたいでも順番が変わらないように）
+    static Pageable withDefaultOrder(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isSorted()) return pageable;
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), DEFAULT_ORDER);
+    }
+
+    // -----------------------------------------------------
+    // 複合条件検索（両層）。ファセットも同じ条件で両層をまとめて集計する
+    // -----------------------------------------------------
+    public BookSearchResult search(BookSearchCriteria criteria, Pageable pageable,
+                                   boolean facets, int priceBucketWidth) {
+        Specification<CatalogBook> spec = BookSpecifications.matching(criteria);
+        Page<Book> page = catalogRepo.findAll(spec, pageable).map(CatalogBook::toBook);
+        if (!facets) {
+            return new BookSearchResult(page, List.of(), List.of());
+        }
+        List<FacetCount> authors = catalogRepo.authorFacets(spec, BookService.AUTHOR_FACET_LIMIT);
+        List<FacetCount> prices = catalogRepo.priceFacets(spec, priceBucketWidth);
+        return new BookSearchResult(page, authors, prices);
+    }
+
+    // 条件に一致し id > afterId の ID（両層、id の昇順に limit 件。一括処理の対象選び）
+    public List<Long> findIdsAfter(BookSearchCriteria criteria, long afterId, int limit) {
+        return catalogRepo.findIdsAfter(BookSpecifications.matching(criteria), afterId, limit);
+    }
+
+    // 条件に一致する件数（両層）
+    public long count(BookSearchCriteria criteria) {
+        return catalogRepo.count(BookSpecifications.<CatalogBook>matching(criteria));
+    }
+
+    // -----------------------------------------------------
+    // ID 指定でコールド層から取得
+    // -----------------------------------------------------
+    public Optional<Book> findArchived(Long id) {
+        if (!hasArchived()) return Optional.empty();
+        return archiveRepo.findById(id).map(ArchivedBook::toBook);
+    }
+
+    public List<Book> findArchived(Collection<Long> ids) {
+        if (ids.isEmpty() || !hasArchived()) return List.of();
+        return archiveRepo.findAllById(ids).stream().map(ArchivedBook::toBook).toList();
+    }
+
+    // -----------------------------------------------------
+    // コールド層の Book をホット層へ戻す（呼び出し側のトランザクションの中で。更新・削除の前に）
+    //   ID はそのまま引き継ぐ。内容は変わらないので変更履歴・キャッシュ無効化・統計は触らない
+    //   コールド層の行をロックしてから移すので、同じ Book を同時に戻しても二重にはならない
+    //   戻した ID を返す（コールド層になかったものは含まない）
+    // -----------------------------------------------------
+    public List<Long> restore(Collection<Long> ids) {
+        if (ids.isEmpty() || !hasArchived()) return List.of();
+        List<Long> locked = archiveRepo.lockIds(ids);
+        if (locked.isEmpty()) return locked;
+        repo.copyFromArchive(locked);
+        archiveRepo.deleteAllByIdInBatch(locked);
+        return locked;
+    }
+
+    // -----------------------------------------------------
+    // アーカイブ（定期実行）
+    //   古い順に batch-size 件ずつ移す。1 バッチごとにコミットするので、
+    //   途中で止まっても移し終えた分はそのまま残り、ロックも短く済む
+    //   移す行は FOR UPDATE SKIP LOCKED で取る。他のノードのアーカイブが同時に走っても
+    //   お互いにロック済みの行を飛ばすので、同じ行を二重にコピーすることはない
+    //   （同じ行を更新中のトランザクションがあれば、その行は次のバッチ以降に回る）
+    //
+    //   PostgreSQL で book_archive をパーティションにしている場合は、移す前に年のパーティションを用意する
+    //
+    //   ※ 内容は変わらないので変更履歴・キャッシュ無効化・統計の更新は行わない
+    // -----------------------------------------------------
+    @Scheduled(fixedDelayString = "${app.tiering.archive-interval:PT1H}",
+               initialDelayString = "${app.tiering.archive-interval:PT1H}")
+    public void archive() {
+        if (!enabled) return;
+        LocalDateTime cutoff = LocalDateTime.now().minus(hotAge);
+        partitions.ensureFor(cutoff.toLocalDate());
+
+        long moved = 0;
+        while (true) {
+            Integer n = tx.execute(status -> {
+                List<Long> ids = repo.lockIdsCreatedBefore(cutoff, batchSize);
+                if (ids.isEmpty()) return 0;
+                archiveRepo.copyFromHot(ids);
+                repo.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            if (n == null || n == 0) break;
+            moved += n;
+            if (n < batchSize) break;
+        }
+
+        long archived = refreshArchivedCount();
+        if (moved > 0) {
+            log.info("Archived {} books created before {} (archive size: {})", moved, cutoff, archived);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.service;
+
+import java.util.function.Consumer;
+
+// ------------------------------------------------------------
+// ノード間のキャッシュ無効化バス
+//   ・publish はトランザクションの中で呼ぶ。コミットされたときだけ全ノードに届く
+//     （ロールバックされた変更で他ノードのキャッシュが消えることはない）
+//   ・自ノードにも届く。無効化は何度行っても結果は同じなので問題ない
+//   ・listener に渡される key が null の場合は「そのキャッシュを全部捨てる」意味
+//     （通知を取りこぼした可能性があるとき＝再接続時など）
+//
+//   実装:
+//     PgNotifyCacheInvalidationBus  … PostgreSQL の LISTEN / NOTIFY
+//     PollingCacheInvalidationBus   … cache_invalidation テーブルのポーリング（H2 など）
+// ------------------------------------------------------------
+public interface CacheInvalidationBus {
+
+    // キャッシュ名
+    String BOOKS = "books";
+    String USERS = "users";
+
+    // cache の key を無効化するよう全ノードに知らせる（コミット時に配信）
+    void publish(String cache, String key);
+
+    // cache の無効化通知を受け取る
+    void subscribe(String cache, Consumer<String> listener);
+}
@@ -0,0 +1,237 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+// ------------------------------------------------------------
+// カタログ（ホット層 + コールド層の全 Book）の読み取り専用スナップショット
+//
+//   ・ファイルを FileChannel.map でメモリにマップして読む
+//     → データはヒープの外（OS のページキャッシュ）にあり、ヒープの使用量は件数に依存しない
+//   ・ファイルの形式（数値はすべてビッグエンディアン。作るのは CatalogSnapshotWriter）
+//       ヘッダ（64 バイト）: magic, version, 作成時刻（エポックミリ秒）, 件数 n, 文字列領域の位置, 並び順領域の位置
+//       列（各 n 個）      : id（long・昇順）, createdAt（long）, updatedAt（long）, price（int）,
+//                            title の位置（int）, author の位置（int）
+//       文字列領域         : [長さ（int。null は -1）][UTF-8 のバイト列] の並び
+//       並び順領域（各 n 個）: createdAt 順・title 順・price 順の行番号（int。同じ値は id 順）
+//   ・日時は UTC のエポックマイクロ秒（null は Long.MIN_VALUE）、price の null は Integer.MIN_VALUE
+//   ・バッファは絶対位置の get だけで読むので、複数スレッドから同時に読んでよい
+//   ・マップできる大きさの上限（2GB）を超えるカタログには使えない
+// ------------------------------------------------------------
+final class CatalogSnapshot {
+
+    static final int MAGIC = 0x424B5331;   // "BKS1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int ROW_BYTES = 8 + 8 + 8 + 4 + 4 + 4;
+
+    // 並び順領域の並び（id 順は列そのもの）
+    static final int ORDER_ID = -1;
+    static final int ORDER_CREATED_AT = 0;
+    static final int ORDER_TITLE = 1;
+    static final int ORDER_PRICE = 2;
+    static final int ORDERS = 3;
+
+    static final int NULL_INT = Integer.MIN_VALUE;
+    static final long NULL_TIME = Long.MIN_VALUE;
+
+    private final ByteBuffer buf;
+    private final Instant builtAt;
+    private final int count;
+    private final int strings;
+    private final int orders;
+
+    private CatalogSnapshot(ByteBuffer buf) {
+        if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a catalog snapshot (or unsupported version)");
+        }
+        this.buf = buf;
+        this.builtAt = Instant.ofEpochMilli(buf.getLong(8));
+        this.count = buf.getInt(16);
+        this.strings = (int) buf.getLong(24);
+        this.orders = (int) buf.getLong(32);
+        if (strings != HEADER_BYTES + (long) ROW_BYTES * count
+                || (long) orders + 4L * ORDERS * count != buf.capacity()) {
+            throw new IllegalStateException("Corrupted catalog snapshot");
+        }
+    }
+
+    // -----------------------------------------------------
+    // ファイルを開く（マップはチャネルを閉じた後も有効）
+    // -----------------------------------------------------
+    static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot is too large to map: " + ch.size() + " bytes");
+            }
+            return new CatalogSnapshot(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    Instant builtAt() {
+        return builtAt;
+    }
+
+    int size() {
+        return count;
+    }
+
+    // -----------------------------------------------------
+    // ID 指定（id 列の二分探索）。スナップショットにない場合は empty
+    // -----------------------------------------------------
+    Optional<Book> get(long id) {
+        int pos = indexOf(id);
+        return (pos < 0) ? Optional.empty() : Optional.of(row(pos));
+    }
+
+    // -----------------------------------------------------
+    // 一覧（BookService.list と同じ条件：q はタイトルの部分一致・大文字小文字を区別しない）
+    //   ・q なし : 並び順領域から該当ページの行だけを読む（O(ページサイズ)）
+    //   ・q あり : 並び順に全件のタイトルを見る（O(件数)）
+    //   並び順領域にない並び（著者順・複数キーなど）やページ指定なしの場合は empty
+    // -----------------------------------------------------
+    Optional<Page<Book>> list(String q, Pageable pageable) {
+        if (pageable.isUnpaged()) return Optional.empty();
+        Traversal t = Traversal.of(pageable.getSort());
+        if (t == null) return Optional.empty();
+
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        List<Book> content = new ArrayList<>(size);
+
+        if (q == null || q.isBlank()) {
+            for (long k = offset; k < Math.min(count, offset + size); k++) {
+                content.add(row(position(t, (int) k)));
+            }
+            return Optional.of(new PageImpl<>(content, pageable, count));
+        }
+
+        String needle = q.toLowerCase(Locale.ROOT);
+        long total = 0;
+        for (int k = 0; k < count; k++) {
+            int pos = position(t, k);
+            String title = string(buf.getInt(column(4) + 4 * pos));
+            if (title == null || !title.toLowerCase(Locale.ROOT).contains(needle)) continue;
+            if (total >= offset && content.size() < size) {
+                content.add(row(pos));
+            }
+            total++;
+        }
+        return Optional.of(new PageImpl<>(content, pageable, total));
+    }
+
+    // k 番目に来る行の行番号
+    private int position(Traversal t, int k) {
+        int i = t.desc() ? count - 1 - k : k;
+        return (t.order() == ORDER_ID) ? i : buf.getInt(orders + 4 * (t.order() * count + i));
+    }
+
+    private int indexOf(long id) {
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long v = buf.getLong(HEADER_BYTES + 8 * mid);
+            if (v < id) lo = mid + 1;
+            else if (v > id) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private Book row(int pos) {
+        Book b = new Book();
+        b.setId(buf.getLong(column(0) + 8 * pos));
+        b.setCreatedAt(toTime(buf.getLong(column(1) + 8 * pos)));
+        b.setUpdatedAt(toTime(buf.getLong(column(2) + 8 * pos)));
+        int price = buf.getInt(column(3) + 4 * pos);
+        b.setPrice(price == NULL_INT ? null : price);
+        b.setTitle(string(buf.getInt(column(4) + 4 * pos)));
+        b.setAuthor(string(buf.getInt(column(5) + 4 * pos)));
+        return b;
+    }
+
+    // 列の先頭位置（0: id, 1: createdAt, 2: updatedAt, 3: price, 4: title, 5: author）
+    private int column(int c) {
+        return switch (c) {
+            case 0 -> HEADER_BYTES;
+            case 1 -> HEADER_BYTES + 8 * count;
+            case 2 -> HEADER_BYTES + 16 * count;
+            case 3 -> HEADER_BYTES + 24 * count;
+            case 4 -> HEADER_BYTES + 28 * count;
+            case 5 -> HEADER_BYTES + 32 * count;
+            default -> throw new IllegalArgumentException("column " + c);
+        };
+    }
+
+    private String string(int offset) {
+        int at = strings + offset;
+        int len = buf.getInt(at);
+        if (len < 0) return null;
+        byte[] bytes = new byte[len];
+        buf.get(at + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ---- 日時の変換（UTC のエポックマイクロ秒） ----
+
+    static long fromTime(LocalDateTime t) {
+        if (t == null) return NULL_TIME;
+        return t.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + t.getNano() / 1_000;
+    }
+
+    static LocalDateTime toTime(long micros) {
+        if (micros == NULL_TIME) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    // -----------------------------------------------------
+    // 並び → どの並び順領域を、どちら向きに読むか
+    //   1 キー、または「キー + 同じ向きの id」だけに対応する（NEWEST_FIRST は createdAt 順の逆向き）
+    // -----------------------------------------------------
+    record Traversal(int order, boolean desc) {
+
+        static Traversal of(Sort sort) {
+            if (sort.isUnsorted()) return new Traversal(ORDER_ID, false);
+
+            List<Sort.Order> keys = sort.toList();
+            if (keys.size() > 2) return null;
+            Sort.Order first = keys.get(0);
+            if (keys.size() == 2) {
+                Sort.Order second = keys.get(1);
+                if (!second.getProperty().equals("id") || second.getDirection() != first.getDirection()
+                        || second.isIgnoreCase()) {
+                    return null;
+                }
+            }
+            if (first.isIgnoreCase()) return null;
+
+            int order = switch (first.getProperty()) {
+                case "id" -> ORDER_ID;
+                case "createdAt" -> ORDER_CREATED_AT;
+                case "title" -> ORDER_TITLE;
+                case "price" -> ORDER_PRICE;
+                default -> Integer.MIN_VALUE;
+            };
+            return (order == Integer.MIN_VALUE) ? null : new Traversal(order, first.isDescending());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Iterator;
+
+import static com.example.demo.service.CatalogSnapshot.*;
+
+// ------------------------------------------------------------
+// CatalogSnapshot のファイルを作る（形式は CatalogSnapshot のコメントを参照）
+//
+//   ① add       : Book を id の昇順に渡す。列ごとの一時ファイルに追記していく
+//   ② order     : 並び順ごとに「その順に並んだ id の列」を渡す。id 列を二分探索して行番号に直す
+//                 （行を読んだ後に追加された id は無視し、削除されて現れなかった行は末尾に id 順で足す）
+//   ③ finish    : ヘッダ + 一時ファイルを 1 つのファイルにつなげ、fsync してから
+//                 target へ ATOMIC_MOVE で置き換える（読む側が書きかけのファイルを見ることはない）
+//
+//   件数に比例してヒープに載るのは、並び順ごとの「出現済み」ビット列（1 件 1 ビット）だけ
+// ------------------------------------------------------------
+final class CatalogSnapshotWriter implements Closeable {
+
+    // 一時ファイル（列 6 つ + 文字列 + 並び順 3 つ）
+    private static final int COLUMNS = 6;
+    private static final int STRINGS = COLUMNS;
+    private static final int FIRST_ORDER = COLUMNS + 1;
+
+    private final Path[] files = new Path[FIRST_ORDER + ORDERS];
+    private final DataOutputStream[] columns = new DataOutputStream[COLUMNS];
+    private final DataOutputStream strings;
+    private final boolean[] ordered = new boolean[ORDERS];
+
+    private int count;
+    private long stringBytes;
+    private long lastId = Long.MIN_VALUE;
+    private FileChannel idsChannel;
+    private LongBuffer ids;   // ② 以降、id 列をマップしたもの
+
+    CatalogSnapshotWriter(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (int i = 0; i < files.length; i++) {
+            files[i] = Files.createTempFile(dir, "snapshot-", ".tmp");
+        }
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = open(files[i]);
+        }
+        strings = open(files[STRINGS]);
+    }
+
+    // -----------------------------------------------------
+    // ① 1 行追加する（id の昇順に呼ぶこと）
+    // -----------------------------------------------------
+    void add(Book b) throws IOException {
+        if (ids != null) throw new IllegalStateException("Rows are already finished");
+        if (b.getId() <= lastId) {
+            throw new IllegalArgumentException("Rows must be added in ascending id order: " + b.getId());
+        }
+        lastId = b.getId();
+
+        columns[0].writeLong(b.getId());
+        columns[1].writeLong(fromTime(b.getCreatedAt()));
+        columns[2].writeLong(fromTime(b.getUpdatedAt()));
+        columns[3].writeInt(b.getPrice() == null ? NULL_INT : b.getPrice());
+        columns[4].writeInt(writeString(b.getTitle()));
+        columns[5].writeInt(writeString(b.getAuthor()));
+        count++;
+    }
+
+    // -----------------------------------------------------
+    // ② 並び順を書く（which: ORDER_CREATED_AT / ORDER_TITLE / ORDER_PRICE）
+    // -----------------------------------------------------
+    void order(int which, Iterator<Long> sortedIds) throws IOException {
+        finishRows();
+        BitSet seen = new BitSet(count);
+        try (DataOutputStream out = open(files[FIRST_ORDER + which])) {
+            while (sortedIds.hasNext()) {
+                int pos = indexOf(sortedIds.next());
+                if (pos >= 0 && !seen.get(pos)) {
+                    seen.set(pos);
+                    out.writeInt(pos);
+                }
+            }
+            for (int pos = seen.nextClearBit(0); pos < count; pos = seen.nextClearBit(pos + 1)) {
+                out.writeInt(pos);
+            }
+        }
+        ordered[which] = true;
+    }
+
+    // -----------------------------------------------------
+    // ③ 1 つのファイルにまとめて target を置き換える
+    // -----------------------------------------------------
+    void finish(Path target, Instant builtAt) throws IOException {
+        finishRows();
+        for (int i = 0; i < ORDERS; i++) {
+            if (!ordered[i]) throw new IllegalStateException("Order " + i + " is not written");
+        }
+
+        long stringsAt = HEADER_BYTES + (long) ROW_BYTES * count;
+        long ordersAt = stringsAt + stringBytes;
+        long total = ordersAt + 4L * ORDERS * count;
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Catalog snapshot would be too large to map: " + total + " bytes");
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putLong(builtAt.toEpochMilli()).putInt(count).putInt(0)
+                .putLong(stringsAt).putLong(ordersAt);
+        header.clear();
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) out.write(header);
+            for (Path f : files) {
+                try (FileChannel in = FileChannel.open(f, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    for (long done = 0; done < size; ) {
+                        done += in.transferTo(done, size - done, out);
+                    }
+                }
+            }
+            out.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // 一時ファイルを消す（finish の後でも失敗した後でも呼ぶ）
+    @Override
+    public void close() throws IOException {
+        for (DataOutputStream c : columns) c.close();
+        strings.close();
+        if (idsChannel != null) idsChannel.close();
+        for (Path f : files) Files.deleteIfExists(f);
+    }
+
+    // 行の追記を締めて、id 列を二分探索できるようにマップする
+    private void finishRows() throws IOException {
+        if (ids != null) return;
+        for (DataOutputStream c : columns) c.close();
+        strings.close();
+        idsChannel = FileChannel.open(files[0], StandardOpenOption.READ);
+        ids = idsChannel.map(FileChannel.MapMode.READ_ONLY, 0, idsChannel.size()).asLongBuffer();
+    }
+
+    private int indexOf(long id) {
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long v = ids.get(mid);
+            if (v < id) lo = mid + 1;
+            else if (v > id) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    // 文字列を追記し、文字列領域の中での位置を返す
+    private int writeString(String s) throws IOException {
+        long at = stringBytes;
+        if (at > Integer.MAX_VALUE) {
+            throw new IOException("Catalog snapshot strings exceed 2GB");
+        }
+        if (s == null) {
+            strings.writeInt(-1);
+            stringBytes += 4;
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            strings.writeInt(bytes.length);
+            strings.write(bytes);
+            stringBytes += 4 + bytes.length;
+        }
+        return (int) at;
+    }
+
+    private static DataOutputStream open(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.CatalogBook;
+import com.example.demo.repository.CatalogBookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// ------------------------------------------------------------
+// カタログのスナップショット（CatalogSnapshot）を定期的に作り直し、BookService の読み取りに使う
+//
+//   app.snapshot.mode
+//     off      … 使わない（既定）
+//     fallback … 普段は DB から読み、DB が使えない（DatabaseUnavailableException）ときだけ
+//                スナップショットから返す（DB のメンテナンス中も一覧・取得が動き続ける）
+//     primary  … 読み取り中心のノード向け。スナップショットで答えられるものは DB に問い合わせない
+//                （自分の書き込みもスナップショットを作り直すまでは見えない）
+//
+//   ・鮮度の上限 : primary は app.snapshot.max-staleness、fallback は app.snapshot.fallback-max-staleness
+//                  より古いスナップショットは使わない（DB から読む / 503 のまま返す）
+//   ・作り直し   : app.snapshot.refresh-interval ごとに別ファイルへ書き、ATOMIC_MOVE で置き換えてから
+//                  新しいマップに切り替える（読み取り中のスレッドは古いマップを最後まで読める）
+//   ・起動時     : 前回のファイルが残っていればそれを開く（DB が止まっていても起動直後から読める）
+//   ・スナップショットで答えられない読み取り（対応していない並び・スナップショットにない ID）は DB へ回す
+//   ・メトリクス : catalog.snapshot.age（秒）、catalog.snapshot.reads（mode ごとの件数）
+// ------------------------------------------------------------
+@Service
+@Lazy(false)
+public class CatalogSnapshots {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshots.class);
+
+    public enum Mode {
+        OFF, FALLBACK, PRIMARY;
+
+        // app.snapshot.mode の値を読む（大文字・小文字は区別しない）
+        //   YAML では引用符なしの off が真偽値 false として読まれ、プロパティの値が "false" になるので OFF として扱う
+        //   それ以外の値は、指定できる値を並べたメッセージで起動を止める
+        public static Mode of(String value) {
+            String v = value.trim().toLowerCase(Locale.ROOT);
+            if (v.equals("false")) {
+                return OFF;
+            }
+            for (Mode m : values()) {
+                if (m.name().toLowerCase(Locale.ROOT).equals(v)) {
+                    return m;
+                }
+            }
+            throw new IllegalArgumentException("Invalid app.snapshot.mode '" + value
+                    + "' (expected one of: off, fallback, primary)");
+        }
+    }
+
+    static final String FILE_NAME = "catalog.snapshot";
+
+    private final CatalogBookRepository repo;
+    private final TransactionTemplate tx;
+    private final Mode mode;
+    private final Path file;
+    private final Duration maxStaleness;
+    private final Duration fallbackMaxStaleness;
+    private final int batchSize;
+    private final Counter primaryReads;
+    private final Counter fallbackReads;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+
+    public CatalogSnapshots(CatalogBookRepository repo, PlatformTransactionManager txManager, MeterRegistry meters,
+                            @Value("${app.snapshot.mode:off}") String mode,
+                            @Value("${app.snapshot.dir:${java.io.tmpdir}/book-manager-snapshot}") String dir,
+                            @Value("${app.snapshot.max-staleness:PT10M}") Duration maxStaleness,
+                            @Value("${app.snapshot.fallback-max-staleness:PT6H}") Duration fallbackMaxStaleness,
+                            @Value("${app.snapshot.batch-size:5000}") int batchSize) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(txManager);
+        this.tx.setReadOnly(true);
+        this.mode = Mode.of(mode);
+        this.file = Path.of(dir).resolve(FILE_NAME);
+        this.maxStaleness = maxStaleness;
+        this.fallbackMaxStaleness = fallbackMaxStaleness;
+        this.batchSize = batchSize;
+
+        Gauge.builder("catalog.snapshot.age", this, s -> s.age().map(Duration::toSeconds).orElse(-1L))
+                .description("Age of the catalog snapshot in seconds (-1 = none)")
+                .register(meters);
+        this.primaryReads = Counter.builder("catalog.snapshot.reads").tag("mode", "primary").register(meters);
+        this.fallbackReads = Counter.builder("catalog.snapshot.reads").tag("mode", "fallback").register(meters);
+
+        if (this.mode != Mode.OFF && Files.isRegularFile(file)) {
+            try {
+                current.set(CatalogSnapshot.open(file));
+                log.info("Opened catalog snapshot {} ({} books, built at {})",
+                        file, current.get().size(), current.get().builtAt());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable catalog snapshot {}", file, e);
+            }
+        }
+    }
+
+    // -----------------------------------------------------
+    // 読み取りを DB かスナップショットのどちらかで行う
+    //   fromSnapshot が empty を返したら「スナップショットでは答えられない」
+    // -----------------------------------------------------
+    <T> T serve(Supplier<T> fromDb, Function<CatalogSnapshot, Optional<T>> fromSnapshot) {
+        if (mode == Mode.PRIMARY) {
+            Optional<T> r = usable(maxStaleness).flatMap(fromSnapshot);
+            if (r.isPresent()) {
+                primaryReads.increment();
+                return r.get();
+            }
+        }
+        try {
+            return fromDb.get();
+        } catch (DatabaseUnavailableException e) {
+            if (mode == Mode.OFF) throw e;
+            T r = usable(fallbackMaxStaleness).flatMap(fromSnapshot).orElseThrow(() -> e);
+            fallbackReads.increment();
+            return r;
+        }
+    }
+
+    // スナップショットの古さ（まだない場合は empty）
+    public Optional<Duration> age() {
+        CatalogSnapshot s = current.get();
+        return (s == null) ? Optional.empty() : Optional.of(Duration.between(s.builtAt(), Instant.now()));
+    }
+
+    private Optional<CatalogSnapshot> usable(Duration maxAge) {
+        CatalogSnapshot s = current.get();
+        if (s == null || Duration.between(s.builtAt(), Instant.now()).compareTo(maxAge) > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(s);
+    }
+
+    // -----------------------------------------------------
+    // スナップショットを作り直して切り替える
+    //   行は id 順に batch-size 件ずつ（1 回 1 トランザクション）、並び順は DB に並べさせて受け取る
+    //   DB が使えないなどで失敗した場合は、今のスナップショットをそのまま使い続ける
+    // -----------------------------------------------------
+    @Scheduled(fixedDelayString = "${app.snapshot.refresh-interval:PT5M}",
+               initialDelayString = "${app.snapshot.initial-delay:PT10S}")
+    public void refresh() {
+        if (mode == Mode.OFF) return;
+        long start = System.nanoTime();
+        Instant builtAt = Instant.now();
+
+        try (CatalogSnapshotWriter w = new CatalogSnapshotWriter(file.getParent())) {
+            long after = Long.MIN_VALUE;
+            while (true) {
+                long from = after;
+                List<CatalogBook> rows = tx.execute(status ->
+                        repo.findByIdGreaterThanOrderByIdAsc(from, Limit.of(batchSize)));
+                if (rows == null || rows.isEmpty()) break;
+                for (CatalogBook b : rows) w.add(b.toBook());
+                after = rows.get(rows.size() - 1).getId();
+                if (rows.size() < batchSize) break;
+            }
+            writeOrder(w, CatalogSnapshot.ORDER_CREATED_AT, repo::streamIdsOrderByCreatedAt);
+            writeOrder(w, CatalogSnapshot.ORDER_TITLE, repo::streamIdsOrderByTitle);
+            writeOrder(w, CatalogSnapshot.ORDER_PRICE, repo::streamIdsOrderByPrice);
+            w.finish(file, builtAt);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to refresh catalog snapshot; keeping the previous one", e);
+            return;
+        }
+
+        try {
+            CatalogSnapshot s = CatalogSnapshot.open(file);
+            current.set(s);
+            log.info("Catalog snapshot refreshed: {} books in {} ms",
+                    s.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Failed to open refreshed catalog snapshot {}", file, e);
+        }
+    }
+
+    private void writeOrder(CatalogSnapshotWriter w, int which, Supplier<Stream<Long>> ids) {
+        tx.executeWithoutResult(status -> {
+            try (Stream<Long> s = ids.get()) {
+                w.order(which, s.iterator());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
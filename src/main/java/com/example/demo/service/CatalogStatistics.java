@@ -0,0 +1,244 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import com.example.demo.repository.CatalogBookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// ------------------------------------------------------------
+// カタログ全体の統計値（件数・価格の最小/最大/平均・価格ヒストグラム・著者ランキング）
+//
+//   ・BookService の作成/更新/削除、BookBulkService の一括処理のたびに（コミット後に）差分だけ加減算する
+//     → 読み取りは全件走査せずに済む（findAll でページを回す必要がない）
+//   ・カウンタは LongAdder / Concurrent 系のマップで、書き込みが競合してもロックしない
+//   ・取りこぼしや他ノードでの書き込みによるズレは、定期的な reconcile で DB の値に合わせ直す
+//   ・lazy プロファイルでも起動時に作る（@Scheduled の reconcile を始めるため）
+// ------------------------------------------------------------
+@Service
+@Lazy(false)
+public class CatalogStatistics {
+
+    // 価格ヒストグラムの 1 区間 [from, to)
+    public record PriceBucket(int from, int to, long count) {}
+
+    // 著者ごとの冊数
+    public record AuthorCount(String author, long count) {}
+
+    // 著者ランキングの順（冊数の降順、同数なら著者名の昇順）
+    private static final Comparator<AuthorCount> RANKING_ORDER =
+            Comparator.comparingLong(AuthorCount::count).reversed().thenComparing(AuthorCount::author);
+
+    // 読み取り結果
+    public record Summary(
+            long totalBooks,                  // 総冊数
+            long pricedBooks,                 // 価格が設定されている冊数
+            Integer minPrice,                 // 最小価格（価格ありが 0 件なら null）
+            Integer maxPrice,                 // 最大価格
+            Double avgPrice,                  // 平均価格
+            int bucketWidth,                  // ヒストグラムの区間幅
+            List<PriceBucket> priceHistogram, // 価格ヒストグラム（from の昇順）
+            List<AuthorCount> topAuthors,     // 冊数の多い著者（降順）
+            LocalDateTime reconciledAt        // 最後に DB と突き合わせた日時
+    ) {}
+
+    private final CatalogBookRepository repo;
+    private final int bucketWidth;
+
+    // 現在のカウンタ一式。reconcile のときは新しく作り直して丸ごと差し替える
+    private final AtomicReference<Counters> counters;
+
+    // 変更のたびに増える番号。読み取り結果のキャッシュが古いかどうかの判定に使う
+    private final AtomicLong version = new AtomicLong();
+    private volatile CachedSummary cached;
+
+    public CatalogStatistics(CatalogBookRepository repo,
+                             @Value("${app.stats.price-bucket-width:1000}") int bucketWidth) {
+        this.repo = repo;
+        this.bucketWidth = bucketWidth;
+        this.counters = new AtomicReference<>(new Counters(bucketWidth));
+    }
+
+    // -----------------------------------------------------
+    // 変更イベントを受けて差分を反映する（コミット後だけ）
+    //   更新は「変更前を引いて、変更後を足す」
+    // -----------------------------------------------------
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(BookChangedEvent e) {
+        Counters c = counters.get();
+        if (e.previous() != null) c.add(e.previous(), -1);
+        if (e.book() != null) c.add(e.book(), +1);
+        version.incrementAndGet();
+    }
+
+    // 一括更新・一括削除は 1 チャンクごとに、著者・価格ごとの冊数で差分を反映する
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(BookBulkChangedEvent e) {
+        Counters c = counters.get();
+        for (BookBulkChangedEvent.Group g : e.removed()) c.addGroup(g.author(), g.price(), -g.count());
+        for (BookBulkChangedEvent.Group g : e.added()) c.addGroup(g.author(), g.price(), g.count());
+        version.incrementAndGet();
+    }
+
+    // -----------------------------------------------------
+    // 統計値を返す
+    //   変更がなければ前回の結果をそのまま返す（O(1)）
+    //   変更があったときだけヒストグラム（区間数）を組み立て直し、著者ランキングは先頭から top 件だけ読む
+    // -----------------------------------------------------
+    public Summary summary(int top) {
+        // 先に version を読んでから組み立てる
+        // → 組み立て中に変更が入っても、次回は version が違うので作り直される
+        long v = version.get();
+        CachedSummary c = cached;
+        if (c != null && c.version() == v && c.top() == top) {
+            return c.summary();
+        }
+        Summary s = counters.get().toSummary(top);
+        cached = new CachedSummary(v, top, s);
+        return s;
+    }
+
+    // -----------------------------------------------------
+    // DB の値と突き合わせる（起動直後と、その後は一定間隔で実行）
+    //   価格ごと・著者ごとの GROUP BY 2 本だけで作り直し、丸ごと差し替える
+    //   アーカイブ済み（コールド層）も含めたカタログ全体（CatalogBook）を数える
+    //
+    //   ※ 集計中にコミットされた変更は古いカウンタ側に反映されるため、
+    //     次の reconcile までわずかにズレることがある（次回で解消される）
+    // -----------------------------------------------------
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:PT10M}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        Counters fresh = new Counters(bucketWidth);
+
+        for (Object[] row : repo.countByPrice()) {
+            fresh.addGroup(null, (Integer) row[0], ((Number) row[1]).longValue()); // 著者は下で別に数える
+        }
+        for (Object[] row : repo.countByAuthor()) {
+            fresh.addAuthor((String) row[0], ((Number) row[1]).longValue());
+        }
+        fresh.reconciledAt = LocalDateTime.now();
+
+        counters.set(fresh);
+        version.incrementAndGet();
+    }
+
+    // -----------------------------------------------------
+    // カウンタ一式
+    // -----------------------------------------------------
+    static final class Counters {
+        private final int bucketWidth;
+
+        final LongAdder total = new LongAdder();
+        final LongAdder priced = new LongAdder();
+        final LongAdder priceSum = new LongAdder();
+
+        // 価格 → 冊数（キー順に並ぶので最小・最大が O(log n) で取れる）
+        final ConcurrentSkipListMap<Integer, Long> prices = new ConcurrentSkipListMap<>();
+        // ヒストグラムの区間番号（price / bucketWidth）→ 冊数
+        final ConcurrentHashMap<Integer, Long> buckets = new ConcurrentHashMap<>();
+        // 著者 → 冊数
+        final ConcurrentHashMap<String, Long> authors = new ConcurrentHashMap<>();
+        // 著者ランキング（authors と同じ内容を RANKING_ORDER の順に並べた索引）
+        //   変更のたびに O(log 著者数) で並べ替えておくので、読み取りは先頭から top 件を取るだけで済む
+        //   （上位 N 件だけを持つと、上位の著者の冊数が減ったときに全著者から次点を探し直すことになる）
+        final ConcurrentSkipListSet<AuthorCount> ranking = new ConcurrentSkipListSet<>(RANKING_ORDER);
+
+        volatile LocalDateTime reconciledAt;
+
+        Counters(int bucketWidth) {
+            this.bucketWidth = bucketWidth;
+        }
+
+        // Book 1 冊分を加算（sign = +1）または減算（sign = -1）する
+        void add(Book b, int sign) {
+            addGroup(b.getAuthor(), b.getPrice(), sign);
+        }
+
+        // 著者・価格が同じ Book を count 冊分まとめて加算する（減算は count < 0）
+        void addGroup(String author, Integer price, long count) {
+            total.add(count);
+            addAuthor(author, count);
+            if (price != null) {
+                priced.add(count);
+                priceSum.add(price * count);
+                adjust(prices, price, count);
+                adjust(buckets, Math.floorDiv(price, bucketWidth), count);
+            }
+        }
+
+        // 著者の冊数を delta だけ増減し、ランキングの位置も付け替える（0 以下になったら両方から消す）
+        //   compute は同じ著者の更新を直列にするので、ランキングに同じ著者が 2 つ残ることはない
+        void addAuthor(String author, long delta) {
+            if (author == null || delta == 0) return;
+            authors.compute(author, (a, old) -> {
+                long updated = (old == null ? 0 : old) + delta;
+                if (old != null) ranking.remove(new AuthorCount(a, old));
+                if (updated <= 0) return null;
+                ranking.add(new AuthorCount(a, updated));
+                return updated;
+            });
+        }
+
+        Summary toSummary(int top) {
+            long pricedCount = priced.sum();
+
+            // firstEntry / lastEntry は空なら null を返す（firstKey と違って例外にならない）
+            Map.Entry<Integer, Long> min = prices.firstEntry();
+            Map.Entry<Integer, Long> max = prices.lastEntry();
+
+            List<PriceBucket> histogram = new ArrayList<>(buckets.size());
+            buckets.forEach((i, cnt) -> histogram.add(
+                    new PriceBucket(i * bucketWidth, (i + 1) * bucketWidth, cnt)));
+            histogram.sort(Comparator.comparingInt(PriceBucket::from));
+
+            return new Summary(
+                    total.sum(),
+                    pricedCount,
+                    min == null ? null : min.getKey(),
+                    max == null ? null : max.getKey(),
+                    pricedCount == 0 ? null : (double) priceSum.sum() / pricedCount,
+                    bucketWidth,
+                    histogram,
+                    topAuthors(top),
+                    reconciledAt
+            );
+        }
+
+        // 冊数の多い著者を top 件だけ取り出す（ランキングの先頭から読むだけなので O(top)）
+        private List<AuthorCount> topAuthors(int top) {
+            if (top <= 0) return List.of();
+            return ranking.stream().limit(top).toList();
+        }
+    }
+
+    // -----------------------------------------------------
+    // マップの値を delta だけ増減する（0 以下になったらキーごと消す）
+    // -----------------------------------------------------
+    static <K> void adjust(ConcurrentMap<K, Long> map, K key, long delta) {
+        if (key == null || delta == 0) return;
+        if (delta > 0) {
+            map.merge(key, delta, Long::sum);
+        } else {
+            map.computeIfPresent(key, (k, v) -> v + delta <= 0 ? null : v + delta);
+        }
+    }
+
+    private record CachedSummary(long version, int top, Summary summary) {}
+}
@@ -0,0 +1,153 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+// ------------------------------------------------------------
+// サーキットブレーカー（DbGuard が使う）
+//
+//   CLOSED    : 通常。直近 windowSize 回の結果を数え、失敗率または低速率がしきい値を超えたら OPEN
+//   OPEN      : openDuration の間は呼び出しを即座に断る
+//   HALF_OPEN : openDuration が過ぎたら halfOpenProbes 回だけ試しに通す
+//               全部成功（かつ低速でない）なら CLOSED、1 回でも失敗・低速なら OPEN に戻る
+//
+//   状態の更新は synchronized（中身は数個のフィールドの読み書きだけなので短い）
+// ------------------------------------------------------------
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+    private final BiConsumer<State, State> onTransition;
+
+    // 直近の結果（リングバッファ）
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int calls;
+    private int failures;
+    private int slows;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, double slowRateThreshold,
+                   long slowCallNanos, long openNanos, int halfOpenProbes,
+                   LongSupplier clock, BiConsumer<State, State> onTransition) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowRateThreshold = slowRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.openNanos = openNanos;
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+        this.onTransition = onTransition;
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    // OPEN の残り時間（OPEN でなければ 0）
+    synchronized long remainingOpenNanos() {
+        return state == State.OPEN ? Math.max(0, openNanos - (clock.getAsLong() - openedAt)) : 0;
+    }
+
+    // -----------------------------------------------------
+    // 呼び出してよいか（false なら呼ばずに断る）
+    // -----------------------------------------------------
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openNanos) return false;
+            transition(State.HALF_OPEN);
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) return false;
+            probesStarted++;
+        }
+        return true;
+    }
+
+    // -----------------------------------------------------
+    // 呼び出しの結果を記録する
+    // -----------------------------------------------------
+    synchronized void onResult(boolean failure, long elapsedNanos) {
+        boolean isSlow = elapsedNanos >= slowCallNanos;
+
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failure || isSlow) {
+                    open();
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    clearWindow();
+                    transition(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                record(failure, isSlow);
+                if (calls >= minimumCalls
+                        && (failures >= failureRateThreshold * calls || slows >= slowRateThreshold * calls)) {
+                    open();
+                }
+            }
+            case OPEN -> {
+                // OPEN になる前に通した呼び出しの結果。判定には使わない
+            }
+        }
+    }
+
+    // 結果を判定に使わない呼び出し（キャンセルされたなど）。試験中なら枠を返す
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesStarted > 0) probesStarted--;
+    }
+
+    private void record(boolean failure, boolean isSlow) {
+        if (calls == windowSize) {
+            if (failed[next]) failures--;
+            if (slow[next]) slows--;
+        } else {
+            calls++;
+        }
+        failed[next] = failure;
+        slow[next] = isSlow;
+        if (failure) failures++;
+        if (isSlow) slows++;
+        next = (next + 1) % windowSize;
+    }
+
+    private void clearWindow() {
+        Arrays.fill(failed, false);
+        Arrays.fill(slow, false);
+        next = 0;
+        calls = 0;
+        failures = 0;
+        slows = 0;
+    }
+
+    private void open() {
+        openedAt = clock.getAsLong();
+        clearWindow();
+        transition(State.OPEN);
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        if (from != to) onTransition.accept(from, to);
+    }
+}
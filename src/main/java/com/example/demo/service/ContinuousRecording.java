@@ -0,0 +1,184 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// ------------------------------------------------------------
+// 常時動かしておく JFR（Java Flight Recorder）の記録
+//
+//   ・起動時に記録を始め、直近 app.jfr.max-age（既定 30 分）だけをリングバッファのように残す
+//     （古いチャンクは JFR が自動で捨てる。サイズの上限は app.jfr.max-size）
+//   ・JDK の "default" 設定（本番で常時有効にする前提の低オーバーヘッド設定）をもとに、
+//       - アプリ独自のイベント（BookRequestEvent / DbCallEvent / PasswordCheckEvent）
+//       - アロケーションのサンプリング、ロック競合、GC、CPU サンプリング
+//     を有効にする
+//   ・dump(last) で直近 last の分だけを app.jfr.dump-dir に書き出す（/admin/jfr/dump から呼ばれる）
+//   ・書き出したファイルは新しいものから app.jfr.max-dumps 個だけ残す
+//   ・lazy プロファイルでも起動時に作る（起動直後から記録しておくため）
+// ------------------------------------------------------------
+@Service
+@Lazy(false)
+public class ContinuousRecording {
+
+    private static final Logger log = LoggerFactory.getLogger(ContinuousRecording.class);
+
+    // ダンプのファイル名（/admin/jfr/dumps/{name} で受け取る名前もこの形に限る）
+    private static final Pattern DUMP_NAME = Pattern.compile("book-manager-\\d{8}-\\d{6}(-\\d+)?\\.jfr");
+    private static final DateTimeFormatter DUMP_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Recording recording;  // 無効のときは null
+    private final Path dumpDir;
+    private final int maxDumps;
+
+    public ContinuousRecording(@Value("${app.jfr.enabled:true}") boolean enabled,
+                               @Value("${app.jfr.max-age:PT30M}") Duration maxAge,
+                               @Value("${app.jfr.max-size:268435456}") long maxSize,
+                               @Value("${app.jfr.lock-threshold:PT0.01S}") Duration lockThreshold,
+                               @Value("${app.jfr.sampling-period:PT0.02S}") Duration samplingPeriod,
+                               @Value("${app.jfr.dump-dir:${java.io.tmpdir}/book-manager-jfr}") String dumpDir,
+                               @Value("${app.jfr.max-dumps:10}") int maxDumps) {
+        this.dumpDir = Path.of(dumpDir);
+        this.maxDumps = maxDumps;
+        this.recording = enabled ? start(maxAge, maxSize, lockThreshold, samplingPeriod) : null;
+    }
+
+    private static Recording start(Duration maxAge, long maxSize, Duration lockThreshold, Duration samplingPeriod) {
+        Recording r;
+        try {
+            r = new Recording(Configuration.getConfiguration("default"));
+        } catch (IOException | ParseException e) {
+            log.warn("JFR default configuration is not available; continuous recording is disabled", e);
+            return null;
+        }
+        r.setName("book-manager-continuous");
+        r.setToDisk(true);
+        r.setMaxAge(maxAge);
+        r.setMaxSize(maxSize);
+
+        // アプリ独自のイベント（しきい値なし。1 件ごとのコストは数十 ns 程度）
+        r.enable("com.example.demo.BookRequest");
+        r.enable("com.example.demo.DbCall");
+        r.enable("com.example.demo.PasswordCheck");
+
+        // JDK のイベント（default 設定より少しだけ細かくする）
+        r.enable("jdk.ObjectAllocationSample").with("throttle", "150/s").withStackTrace();
+        r.enable("jdk.JavaMonitorEnter").withThreshold(lockThreshold).withStackTrace();
+        r.enable("jdk.ThreadPark").withThreshold(lockThreshold).withStackTrace();
+        r.enable("jdk.GarbageCollection");
+        r.enable("jdk.ExecutionSample").withPeriod(samplingPeriod);
+
+        r.start();
+        log.info("JFR continuous recording started (max-age={}, max-size={} bytes)", maxAge, maxSize);
+        return r;
+    }
+
+    // -----------------------------------------------------
+    // 記録中かどうか（app.jfr.enabled = false、または JFR が使えない環境では false）
+    // -----------------------------------------------------
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    // -----------------------------------------------------
+    // 直近 last の分を dump-dir に書き出し、そのパスを返す
+    //   JFR はチャンク単位でしか切り出せないので、一度全体を書き出してからイベントの終了時刻で絞り込む
+    //   記録していなければ RecordingDisabledException（503）
+    // -----------------------------------------------------
+    public synchronized Path dump(Duration last) {
+        if (recording == null) {
+            throw new RecordingDisabledException();
+        }
+        try {
+            Files.createDirectories(dumpDir);
+            Path whole = Files.createTempFile(dumpDir, "whole-", ".tmp");
+            try {
+                recording.dump(whole);
+                Instant cutoff = Instant.now().minus(last);
+                Path dest = newDumpPath();
+                try (RecordingFile file = new RecordingFile(whole)) {
+                    file.write(dest, e -> !e.getEndTime().isBefore(cutoff));
+                }
+                pruneDumps();
+                return dest;
+            } finally {
+                Files.deleteIfExists(whole);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // -----------------------------------------------------
+    // 書き出し済みのダンプ（名前が不正・存在しない場合は IllegalArgumentException = 404）
+    //   名前は DUMP_NAME の形に限るので、dump-dir の外は指せない
+    // -----------------------------------------------------
+    public Path findDump(String name) {
+        if (!DUMP_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("JFR dump not found: " + name);
+        }
+        Path p = dumpDir.resolve(name);
+        if (!Files.isRegularFile(p)) {
+            throw new IllegalArgumentException("JFR dump not found: " + name);
+        }
+        return p;
+    }
+
+    // 同じ秒に 2 回書き出したときは連番を付ける
+    private Path newDumpPath() {
+        String base = "book-manager-" + LocalDateTime.now().format(DUMP_TIME);
+        Path p = dumpDir.resolve(base + ".jfr");
+        for (int i = 2; Files.exists(p); i++) {
+            p = dumpDir.resolve(base + "-" + i + ".jfr");
+        }
+        return p;
+    }
+
+    // 新しいものから maxDumps 個だけ残す
+    private void pruneDumps() throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(dumpDir)) {
+            dumps = files.filter(p -> DUMP_NAME.matcher(p.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(this::lastModified).reversed())
+                    .toList();
+        }
+        for (Path old : dumps.subList(Math.min(maxDumps, dumps.size()), dumps.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    private Instant lastModified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toInstant();
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
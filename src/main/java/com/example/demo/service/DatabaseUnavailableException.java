@@ -0,0 +1,22 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+
+// -----------------------------------------------------
+// DB が使えない（遮断中・タイムアウト・接続エラー）ことを表す例外
+//   GlobalExceptionHandler で 503 Service Unavailable に変換する
+//   retryAfter は再試行してよいまでの目安（分からなければ null）
+// -----------------------------------------------------
+public class DatabaseUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public DatabaseUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// -----------------------------------------------------
+// JFR イベント：BookService の DB 呼び出し 1 回（DbGuard が記録する）
+//   所要時間はイベントの duration。JMC などで操作名・結果ごとに集計できる
+// -----------------------------------------------------
+@Name("com.example.demo.DbCall")
+@Label("DB Call")
+@Description("BookService operation executed through DbGuard")
+@Category({"Book Manager", "Database"})
+@StackTrace(false)
+public final class DbCallEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Read Only")
+    boolean readOnly;
+
+    @Label("Outcome")
+    String outcome;
+}
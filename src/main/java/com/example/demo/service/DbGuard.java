@@ -0,0 +1,243 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// ------------------------------------------------------------
+// DB 呼び出しの見張り役（BookService の各操作を通す）
+//
+//   ・タイムアウト : 操作ごとにトランザクションのタイムアウトを設定する
+//                    （app.db.timeout.<操作名>、なければ app.db.timeout.default）
+//                    Hibernate はトランザクションの残り時間を各 JDBC 文の queryTimeout に設定するので、
+//                    DB が止まっても待ち続けない
+//   ・キャンセル   : withCancellation で渡された Cancellation.cancel() が呼ばれると、
+//                    実行中の SQL を Session.cancelQuery()（= Statement.cancel()）で止める
+//                    （クライアントの切断時に BookController から呼ばれる）
+//   ・遮断         : 失敗・低速な呼び出しが続いたら CircuitBreaker が OPEN になり、
+//                    DB に問い合わせずに DatabaseUnavailableException（503）で即座に断る
+//   ・メトリクス   : db.circuit.state（0=CLOSED, 1=OPEN, 2=HALF_OPEN）、db.circuit.transitions、
+//                    db.calls（操作名・結果ごとの所要時間）
+//   ・JFR          : 1 回の呼び出しごとに DbCallEvent を記録する（ContinuousRecording が常時録っている）
+//
+//   DB の不調による例外（接続エラー・タイムアウトなど）は DatabaseUnavailableException に包み直す
+//   「見つからない」などの業務上の例外は DB が応答できている証拠なので、成功として数える
+// ------------------------------------------------------------
+@Service
+public class DbGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(DbGuard.class);
+
+    private final PlatformTransactionManager txManager;
+    private final EntityManager em;
+    private final Environment env;
+    private final MeterRegistry meters;
+    private final CircuitBreaker breaker;
+
+    // 操作名 + 読み取り専用かどうか → TransactionTemplate（タイムアウト設定済み）
+    private final Map<String, TransactionTemplate> templates = new ConcurrentHashMap<>();
+
+    // 現在のスレッドで実行中の操作に対応するキャンセル（withCancellation の中だけ）
+    private static final ThreadLocal<Cancellation> CURRENT = new ThreadLocal<>();
+
+    public DbGuard(PlatformTransactionManager txManager, EntityManager em, Environment env, MeterRegistry meters,
+                   @Value("${app.db.circuit.window-size:50}") int windowSize,
+                   @Value("${app.db.circuit.minimum-calls:20}") int minimumCalls,
+                   @Value("${app.db.circuit.failure-rate:0.5}") double failureRate,
+                   @Value("${app.db.circuit.slow-call:PT2S}") Duration slowCall,
+                   @Value("${app.db.circuit.slow-rate:0.8}") double slowRate,
+                   @Value("${app.db.circuit.open-duration:PT10S}") Duration openDuration,
+                   @Value("${app.db.circuit.half-open-probes:3}") int halfOpenProbes) {
+        this.txManager = txManager;
+        this.em = em;
+        this.env = env;
+        this.meters = meters;
+        this.breaker = new CircuitBreaker(windowSize, minimumCalls, failureRate, slowRate,
+                slowCall.toNanos(), openDuration.toNanos(), halfOpenProbes, System::nanoTime, this::onTransition);
+
+        Gauge.builder("db.circuit.state", breaker, b -> b.state().ordinal())
+                .description("DB circuit breaker state (0=CLOSED, 1=OPEN, 2=HALF_OPEN)")
+                .register(meters);
+    }
+
+    // -----------------------------------------------------
+    // 読み取り専用トランザクションで実行する
+    // -----------------------------------------------------
+    public <T> T read(String operation, Supplier<T> work) {
+        return run(operation, true, work);
+    }
+
+    // -----------------------------------------------------
+    // 読み書きトランザクションで実行する
+    // -----------------------------------------------------
+    public <T> T write(String operation, Supplier<T> work) {
+        return run(operation, false, work);
+    }
+
+    // -----------------------------------------------------
+    // cancellation.cancel() で止められるようにして work を実行する
+    // -----------------------------------------------------
+    public <T> T withCancellation(Cancellation cancellation, Supplier<T> work) {
+        Cancellation previous = CURRENT.get();
+        CURRENT.set(cancellation);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+
+    private <T> T run(String operation, boolean readOnly, Supplier<T> work) {
+        DbCallEvent event = new DbCallEvent();
+        event.begin();
+        if (!breaker.tryAcquire()) {
+            record(event, operation, readOnly, "rejected", 0);
+            throw new DatabaseUnavailableException("Database is unavailable (circuit open)",
+                    Duration.ofNanos(breaker.remainingOpenNanos()), null);
+        }
+
+        Cancellation cancellation = CURRENT.get();
+        long start = System.nanoTime();
+        try {
+            T result = template(operation, readOnly).execute(status -> {
+                if (cancellation == null) return work.get();
+                cancellation.attach(em.unwrap(Session.class));
+                try {
+                    return work.get();
+                } finally {
+                    cancellation.detach();
+                }
+            });
+            long elapsed = System.nanoTime() - start;
+            breaker.onResult(false, elapsed);
+            record(event, operation, readOnly, "success", elapsed);
+            return result;
+        } catch (RuntimeException e) {
+            long elapsed = System.nanoTime() - start;
+            if (cancellation != null && cancellation.isCancelled()) {
+                // 呼び出し側の都合で止めたので DB の不調としては数えない
+                breaker.onIgnored();
+                record(event, operation, readOnly, "cancelled", elapsed);
+                throw e;
+            }
+            if (!isDatabaseFailure(e)) {
+                breaker.onResult(false, elapsed);
+                record(event, operation, readOnly, "success", elapsed);
+                throw e;
+            }
+            breaker.onResult(true, elapsed);
+            record(event, operation, readOnly, "failure", elapsed);
+            throw new DatabaseUnavailableException("Database call failed: " + operation, null, e);
+        }
+    }
+
+    // 接続できない・タイムアウト・一時的なエラーなど、DB 側の不調を表す例外か
+    static boolean isDatabaseFailure(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof TransactionException;
+    }
+
+    private TransactionTemplate template(String operation, boolean readOnly) {
+        return templates.computeIfAbsent(operation + (readOnly ? ":r" : ":w"), k -> {
+            TransactionTemplate t = new TransactionTemplate(txManager);
+            t.setReadOnly(readOnly);
+            t.setTimeout(timeoutSeconds(operation));
+            return t;
+        });
+    }
+
+    // トランザクションのタイムアウトは秒単位（1 秒未満は 1 秒に切り上げる）
+    private int timeoutSeconds(String operation) {
+        Duration d = env.getProperty("app.db.timeout." + operation, Duration.class,
+                env.getProperty("app.db.timeout.default", Duration.class, Duration.ofSeconds(5)));
+        return (int) Math.max(1, (d.toMillis() + 999) / 1000);
+    }
+
+    private void record(DbCallEvent event, String operation, boolean readOnly, String outcome, long elapsedNanos) {
+        Timer.builder("db.calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meters)
+                .record(Duration.ofNanos(elapsedNanos));
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.readOnly = readOnly;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        log.warn("DB circuit breaker: {} -> {}", from, to);
+        Counter.builder("db.circuit.transitions")
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(meters)
+                .increment();
+    }
+
+    // -----------------------------------------------------
+    // 実行中の SQL を止めるためのハンドル（1 リクエストに 1 つ）
+    //   cancel() は別スレッド（コンテナのスレッド）から呼ばれる
+    // -----------------------------------------------------
+    public static final class Cancellation {
+
+        private volatile Session session;
+        private volatile boolean cancelled;
+
+        public void cancel() {
+            cancelled = true;
+            Session s = session;
+            if (s != null) {
+                try {
+                    s.cancelQuery();
+                } catch (RuntimeException e) {
+                    log.debug("Failed to cancel running query", e);
+                }
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        // session を入れてから cancelled を見る（cancel() と逆の順番）ので、
+        // どちらが先に動いても「キャンセルされたのに実行が続く」ことはない
+        void attach(Session session) {
+            this.session = session;
+            if (cancelled) {
+                this.session = null;
+                throw new CancellationException("Cancelled before the query started");
+            }
+        }
+
+        void detach() {
+            this.session = null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// ------------------------------------------------------------
+// JFR のダンプを読み、上位だけを JSON で返せる形（JfrSummary）にまとめる
+//   JMC を開かなくても「どこでメモリを使っているか・どこで CPU を使っているか」の当たりが付けられる
+//   スタックトレースは最も上のフレームで集計する（詳しく見るときはダンプをダウンロードして JMC で開く）
+// ------------------------------------------------------------
+@Service
+public class JfrSummarizer {
+
+    // アプリ独自イベントの名前の接頭辞（BookRequestEvent / DbCallEvent / PasswordCheckEvent）
+    static final String APP_EVENT_PREFIX = "com.example.demo.";
+
+    public JfrSummary summarize(Path file, int top) {
+        Map<String, Long> allocations = new HashMap<>();
+        Map<String, Long> samples = new HashMap<>();
+        Map<String, Long> locks = new HashMap<>();
+        Map<String, long[]> appEvents = new TreeMap<>();  // 名前 → { 件数, 合計 ns, 最大 ns }
+        Instant from = null;
+        Instant to = null;
+        long count = 0;
+
+        try (RecordingFile rf = new RecordingFile(file)) {
+            while (rf.hasMoreEvents()) {
+                RecordedEvent e = rf.readEvent();
+                count++;
+                if (from == null || e.getStartTime().isBefore(from)) from = e.getStartTime();
+                if (to == null || e.getEndTime().isAfter(to)) to = e.getEndTime();
+
+                String type = e.getEventType().getName();
+                switch (type) {
+                    case "jdk.ObjectAllocationSample" ->
+                            allocations.merge(topFrame(e.getStackTrace()), e.getLong("weight"), Long::sum);
+                    case "jdk.ExecutionSample" ->
+                            samples.merge(topFrame(e.getStackTrace()), 1L, Long::sum);
+                    case "jdk.JavaMonitorEnter" -> {
+                        RecordedClass monitor = e.getClass("monitorClass");
+                        String name = (monitor == null) ? "(unknown)" : monitor.getName();
+                        locks.merge(name, e.getDuration().toMillis(), Long::sum);
+                    }
+                    default -> {
+                        if (type.startsWith(APP_EVENT_PREFIX)) {
+                            long nanos = e.getDuration().toNanos();
+                            long[] s = appEvents.computeIfAbsent(appEventName(e, type), k -> new long[3]);
+                            s[0]++;
+                            s[1] += nanos;
+                            s[2] = Math.max(s[2], nanos);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<JfrSummary.EventStats> stats = appEvents.entrySet().stream()
+                .map(en -> {
+                    long[] s = en.getValue();
+                    return new JfrSummary.EventStats(en.getKey(), s[0], s[1] / (double) s[0] / 1_000_000, s[2] / 1_000_000.0);
+                })
+                .toList();
+        return new JfrSummary(from, to, count, top(allocations, top), top(samples, top), top(locks, top), stats);
+    }
+
+    // DbCall は操作名ごとに分ける（list / get / create ...）
+    private static String appEventName(RecordedEvent e, String type) {
+        String name = type.substring(APP_EVENT_PREFIX.length());
+        return e.hasField("operation") ? name + " " + e.getString("operation") : name;
+    }
+
+    // 最も上の Java フレーム（クラス名.メソッド名:行番号）
+    private static String topFrame(RecordedStackTrace st) {
+        if (st == null) return "(no stack trace)";
+        for (RecordedFrame f : st.getFrames()) {
+            if (f.isJavaFrame()) {
+                return f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber();
+            }
+        }
+        return "(native)";
+    }
+
+    private static List<JfrSummary.Entry> top(Map<String, Long> values, int n) {
+        return values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(n)
+                .map(en -> new JfrSummary.Entry(en.getKey(), en.getValue()))
+                .toList();
+    }
+}
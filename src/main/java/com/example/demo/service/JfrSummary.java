@@ -0,0 +1,25 @@
+package com.example.demo.service;
+
+import java.time.Instant;
+import java.util.List;
+
+// -----------------------------------------------------
+// JFR ダンプの要約（JfrSummarizer が作る）
+//   allocationSites : アロケーションの多い場所（サンプルの weight = 推定バイト数の合計）
+//   hotMethods      : CPU サンプリングで最も上にいたメソッド（サンプル数）
+//   lockContention  : 待たされたロックのクラス（待ち時間の合計 ms）
+//   appEvents       : アプリ独自イベントの件数と所要時間（DbCall は操作名ごと）
+// -----------------------------------------------------
+public record JfrSummary(
+        Instant from,
+        Instant to,
+        long eventCount,
+        List<Entry> allocationSites,
+        List<Entry> hotMethods,
+        List<Entry> lockContention,
+        List<EventStats> appEvents) {
+
+    public record Entry(String name, long value) {}
+
+    public record EventStats(String name, long count, double avgMillis, double maxMillis) {}
+}
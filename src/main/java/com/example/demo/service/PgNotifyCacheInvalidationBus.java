@@ -0,0 +1,96 @@
+package com.example.demo.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+// ------------------------------------------------------------
+// PostgreSQL の LISTEN / NOTIFY による無効化バス
+//   ・publish : 現在のトランザクションで pg_notify を実行する
+//               NOTIFY はコミット時にだけ配信されるので「コミット後に通知」が DB 側で保証される
+//   ・受信    : 専用のコネクションで LISTEN し、バックグラウンドスレッドで待ち受ける
+//               このコネクションはプール（Hikari）の外で開く。プールから借りたままにすると
+//               プールが 1 本減り、プールと同じ数の db-query スレッドのうち 1 本が常にコネクション待ちになる
+//   ・コネクションが切れたら再接続し、その間の通知は失われているので全キャッシュを捨てる
+// ------------------------------------------------------------
+public class PgNotifyCacheInvalidationBus extends AbstractCacheInvalidationBus implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PgNotifyCacheInvalidationBus.class);
+
+    static final String CHANNEL = "cache_invalidation";
+    private static final int WAIT_MS = 1_000;
+    private static final long RETRY_MS = 2_000;
+
+    private final DataSource listenDataSource;
+    private final JdbcTemplate jdbc;
+    private final Thread listener;
+    private volatile boolean running = true;
+
+    // dataSource       : publish 用（アプリのプール。トランザクションと同じコネクションを使う）
+    // listenDataSource : LISTEN 用（プールを通さず、getConnection のたびに新しく接続するもの）
+    public PgNotifyCacheInvalidationBus(DataSource dataSource, DataSource listenDataSource) {
+        this.listenDataSource = listenDataSource;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.listener = Thread.ofPlatform().name("cache-invalidation-listener").daemon().unstarted(this::listenLoop);
+    }
+
+    public void start() {
+        listener.start();
+    }
+
+    // JpaTransactionManager の管理下なら、JPA と同じコネクション・同じトランザクションで実行される
+    @Override
+    public void publish(String cache, String key) {
+        jdbc.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, encode(cache, key));
+    }
+
+    private void listenLoop() {
+        boolean first = true;
+        while (running) {
+            // LISTEN 用のコネクションはプールの外で開き、切れるまで使い続ける
+            try (Connection con = listenDataSource.getConnection()) {
+                try (Statement st = con.createStatement()) {
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                // 再接続の場合、切れていた間の通知を取りこぼしているので全部捨てる
+                if (!first) deliverAll();
+                first = false;
+
+                PGConnection pg = con.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] ns = pg.getNotifications(WAIT_MS);
+                    if (ns == null) continue;
+                    for (PGNotification n : ns) {
+                        deliverEncoded(n.getParameter());
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) return;
+                log.warn("LISTEN connection lost, retrying in {} ms", RETRY_MS, e);
+                first = false;
+                sleep();
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(RETRY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        listener.interrupt();
+    }
+}
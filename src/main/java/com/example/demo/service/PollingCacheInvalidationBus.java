@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.CacheInvalidation;
+import com.example.demo.repository.CacheInvalidationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// ------------------------------------------------------------
+// テーブルのポーリングによる無効化バス（LISTEN / NOTIFY が使えない H2 など用）
+//   ・publish : 現在のトランザクションで cache_invalidation に INSERT する
+//   ・受信    : 一定間隔で「watermark より後」を読み、まだ配っていない行だけを購読者に配る
+//
+//   IDENTITY の採番順とコミット順は一致しないため、読んだ最大 ID まで一気に進めると
+//   後からコミットされた小さい ID を取りこぼす。そこで
+//     ・watermark … ここまでの ID はすべて配信済み（または欠番と確定）
+//     ・delivered … watermark より後で配信済みの ID
+//   を持ち、watermark は欠番の手前で止める。欠番がコミットされて見えたらその 1 件だけを配る。
+//   in-flight-lag を過ぎても埋まらない欠番はロールバックされたものとみなして飛ばす
+//   （BookService の差分取得と同じ考え方）。
+// ------------------------------------------------------------
+public class PollingCacheInvalidationBus extends AbstractCacheInvalidationBus implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PollingCacheInvalidationBus.class);
+
+    private static final int BATCH = 500;
+
+    private final CacheInvalidationRepository repo;
+    private final Duration interval;
+    private final Duration retention;
+    private final long inFlightLagNanos;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cache-invalidation-poller");
+        t.setDaemon(true);
+        return t;
+    });
+    // 以下はポーリングのスレッドだけが触る
+    private long watermark;
+    private final TreeSet<Long> delivered = new TreeSet<>();
+    private long gapSince;      // watermark の直後の欠番に気付いた時刻（System.nanoTime、0 = 欠番なし）
+
+    public PollingCacheInvalidationBus(CacheInvalidationRepository repo, Duration interval, Duration retention,
+                                       Duration inFlightLag) {
+        this.repo = repo;
+        this.interval = interval;
+        this.retention = retention;
+        this.inFlightLagNanos = inFlightLag.toNanos();
+    }
+
+    public void start() {
+        watermark = repo.maxId(); // 起動前の通知は関係ない（キャッシュは空）
+        scheduler.scheduleWithFixedDelay(this::poll, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::cleanup, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void publish(String cache, String key) {
+        repo.save(new CacheInvalidation(cache, key));
+    }
+
+    void poll() {
+        try {
+            long cursor = watermark;
+            List<CacheInvalidation> rows;
+            do {
+                rows = repo.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(BATCH));
+                for (CacheInvalidation row : rows) {
+                    // 欠番の後ろは毎回読み直すが、配るのは初めて見た行だけ
+                    if (delivered.add(row.getId())) deliver(row.getCacheName(), row.getEntityKey());
+                    cursor = row.getId();
+                }
+            } while (rows.size() == BATCH);
+            advance(System.nanoTime());
+        } catch (RuntimeException e) {
+            // DB に届かない間は通知を取りこぼすかもしれないので、全部捨てておく
+            log.warn("cache invalidation poll failed", e);
+            deliverAll();
+        }
+    }
+
+    // 配信済みの ID が連続している所まで watermark を進める
+    // 欠番で止まり、それが in-flight-lag より長く埋まらなければ次の配信済み ID の手前まで飛ばす
+    private void advance(long now) {
+        while (!delivered.isEmpty()) {
+            long first = delivered.first();
+            if (first == watermark + 1) {
+                delivered.pollFirst();
+                watermark = first;
+                gapSince = 0;
+                continue;
+            }
+            if (gapSince == 0) gapSince = now;
+            if (now - gapSince < inFlightLagNanos) return;
+            watermark = first - 1;  // ロールバックされた欠番とみなす
+            gapSince = 0;
+        }
+    }
+
+    // 現在の watermark（テスト用）
+    long watermark() {
+        return watermark;
+    }
+
+    private void cleanup() {
+        try {
+            repo.deleteOlderThan(LocalDateTime.now().minus(retention));
+        } catch (RuntimeException e) {
+            log.warn("cache invalidation cleanup failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+// -----------------------------------------------------
+// JFR の常時記録が動いていない（app.jfr.enabled = false、または JFR が使えない環境）ことを表す例外
+//   リクエストの内容ではなくこのインスタンスの状態の問題なので、
+//   GlobalExceptionHandler で 503 Service Unavailable に変換する
+// -----------------------------------------------------
+public class RecordingDisabledException extends IllegalStateException {
+
+    public RecordingDisabledException() {
+        super("JFR continuous recording is disabled");
+    }
+}
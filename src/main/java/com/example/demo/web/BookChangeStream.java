@@ -0,0 +1,164 @@
+package com.example.demo.web;
+
+import com.example.demo.service.BookBulkChangedEvent;
+import com.example.demo.service.BookChangeFeed;
+import com.example.demo.service.BookChangedEvent;
+import com.example.demo.web.dto.BookBulkChangeNotice;
+import com.example.demo.web.dto.BookChangeResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// ---------------------------------------------
+// Book の変更を SSE（Server-Sent Events）で配信するコンポーネント
+//   ・GET /api/books/changes/stream で接続したクライアントを保持する
+//   ・BookChangedEvent をコミット後に受け取り、全クライアントへ送信する
+//   ・送信は書き込みのスレッドでは行わない。クライアントごとの上限付きキューに積むだけにして、
+//     専用スレッド（sse-send-N）が順に送る。遅い・止まったクライアントのキューがあふれたら切断する
+//     （1 つのクライアントのせいで作成・更新・削除のレスポンスが待たされないように）
+//   ・SSE には id を付けない。イベントはコミット順に届き、変更番号（seq）の順とは限らないので、
+//     届いた seq を since に使うと後からコミットされた小さい seq を取りこぼす
+//     切断中に取りこぼした分は GET /api/books/changes?since= で取り直す
+//     （since には /changes が返した nextToken だけを使う）
+// ---------------------------------------------
+@Component
+public class BookChangeStream {
+
+    // 接続のタイムアウト（30分）。切れたらクライアント側で再接続する
+    private static final long TIMEOUT_MS = 30 * 60 * 1000L;
+
+    // クライアントごとに送信待ちにできるイベント数（超えたら遅いクライアントとして切断する）
+    static final int MAX_PENDING = 256;
+
+    // 送信中に追加・削除されても安全なリスト（購読者の増減は送信より少ない）
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // 送信用のスレッド（クライアントごとに高々 1 本が動く。止まったクライアントが他を待たせないよう上限は設けない）
+    private final AtomicInteger threadSeq = new AtomicInteger();
+    private final ExecutorService sender = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "sse-send-" + threadSeq.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    // 新しい購読者を登録する
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+        Subscriber s = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(s));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(s));
+        subscribers.add(s);
+        return emitter;
+    }
+
+    // コミット後にだけ配信する（ロールバックされた変更は流さない）
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(BookChangedEvent e) {
+        BookChangeResponse body = BookChangeResponse.of(
+                new BookChangeFeed.Entry(e.seq(), e.type(), e.bookId(), e.book()));
+        send(SseEmitter.event()
+                .name("book-change")
+                .data(body));
+    }
+
+    // 一括更新・一括削除は Book ID だけをまとめて配信する（1 チャンクにつき 1 イベント）
+    // 最新の内容は GET /api/books/changes?since= で取り直す
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(BookBulkChangedEvent e) {
+        send(SseEmitter.event()
+                .name("book-bulk-change")
+                .data(new BookBulkChangeNotice(e.type().name(), e.bookIds())));
+    }
+
+    // イベントは 1 回だけ組み立てて全クライアントのキューに同じものを積む
+    // （SseEventBuilder は build のたびに区切りの改行を追記するので使い回せない）
+    private void send(SseEmitter.SseEventBuilder event) {
+        Set<ResponseBodyEmitter.DataWithMediaType> data = event.build();
+        for (Subscriber s : subscribers) {
+            s.offer(data);
+        }
+    }
+
+    // 現在の購読者数（テスト・確認用）
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    // -----------------------------------------------------
+    // 購読者 1 人分（送信待ちのキューと、送信中かどうか）
+    //   書き込みのスレッドは offer でキューに積むだけで、SseEmitter には触らない
+    //   （止まったクライアントへの送信中は SseEmitter のロックが握られたままになるため）
+    // -----------------------------------------------------
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ArrayBlockingQueue<>(MAX_PENDING);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> data) {
+            if (dropped) return;
+            if (!pending.offer(data)) {
+                // 追いつけないクライアント：一覧から外し、送信スレッドに切断させる
+                dropped = true;
+                subscribers.remove(this);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);  // 終了処理中
+                }
+            }
+        }
+
+        // キューが空になるまで送る。空にした後に積まれた分があれば続けて送る
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> data;
+                while (!dropped && (data = pending.poll()) != null) {
+                    emitter.send(data);
+                }
+                if (dropped) {
+                    pending.clear();
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // 切断済みのクライアントは一覧から外す
+                dropped = true;
+                pending.clear();
+                subscribers.remove(this);
+            } finally {
+                draining.set(false);
+            }
+            if (!dropped && !pending.isEmpty()) schedule();
+        }
+    }
+}
@@ -1,40 +1,133 @@
 package com.example.demo.web;
 
 import com.example.demo.domain.Book;
+import com.example.demo.service.BookBulkJob;
+import com.example.demo.service.BookBulkService;
+import com.example.demo.service.BookCreateBatcher;
 import com.example.demo.service.BookService;
+import com.example.demo.service.CatalogStatistics;
+import com.example.demo.web.dto.BookBulkDeleteRequest;
+import com.example.demo.web.dto.BookBulkResponse;
+import com.example.demo.web.dto.BookBulkUpdateRequest;
+import com.example.demo.web.dto.BookChangesResponse;
+import com.example.demo.web.dto.CompactBookResponse;
+import com.example.demo.web.dto.LeanPage;
 import com.example.demo.web.dto.BookRequest;
 import com.example.demo.web.dto.BookResponse;
+import com.example.demo.web.dto.BookSearchRequest;
+import com.example.demo.web.dto.BookSearchResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
     private final BookService service;
-    public BookController(BookService service) { this.service = service; }
+    private final BookChangeStream changeStream;
+    private final CatalogStatistics statistics;
+    private final BookResponseCache responseCache;
+    private final BookBulkService bulkService;
+    private final CancellableQueries queries;
+    private final BookCreateBatcher createBatcher;
+    public BookController(BookService service, BookChangeStream changeStream, CatalogStatistics statistics,
+                          BookResponseCache responseCache, BookBulkService bulkService, CancellableQueries queries,
+                          BookCreateBatcher createBatcher) {
+        this.service = service;
+        this.changeStream = changeStream;
+        this.statistics = statistics;
+        this.responseCache = responseCache;
+        this.bulkService = bulkService;
+        this.queries = queries;
+        this.createBatcher = createBatcher;
+    }
 
     // 一覧（検索 + ページング）
+    // 読み取り系は CancellableQueries 経由で実行する（クライアントが切断したら SQL を止める）
     @GetMapping
-    public Page<BookResponse> list(@RequestParam(required = false) String q, Pageable pageable) {
-        return service.list(q, pageable).map(BookResponse::of);
+    public WebAsyncTask<Page<BookResponse>> list(@RequestParam(required = false) String q, Pageable pageable) {
+        return queries.run(() -> service.list(q, pageable).map(BookResponse::of));
+    }
+
+    // 一覧（コンパクト表示：エポックミリ秒の日時 + 最小限のページ情報）
+    // ?view=compact を付けたときだけこちらが選ばれる。CBOR / Smile と組み合わせるとさらに小さくなる
+    @GetMapping(params = "view=compact")
+    public WebAsyncTask<LeanPage<CompactBookResponse>> listCompact(@RequestParam(required = false) String q,
+                                                                  Pageable pageable) {
+        return queries.run(() -> LeanPage.of(service.list(q, pageable), CompactBookResponse::of));
+    }
+
+    // 複合条件検索（著者・価格帯・作成日/更新日の範囲 + 並び替え）とファセット件数
+    @GetMapping("/search")
+    public WebAsyncTask<BookSearchResponse> search(BookSearchRequest req, Pageable pageable,
+                                                   @RequestParam(defaultValue = "true") boolean facets,
+                                                   @RequestParam(defaultValue = "1000") int bucket) {
+        return queries.run(() -> BookSearchResponse.of(
+                service.search(req.toCriteria(), pageable, facets, Math.max(1, bucket))));
+    }
+
+    // 差分取得（since より後に作成・更新・削除された Book）
+    @GetMapping("/changes")
+    public WebAsyncTask<BookChangesResponse> changes(@RequestParam(defaultValue = "0") long since,
+                                                     @RequestParam(defaultValue = "500") int limit) {
+        return queries.run(() -> BookChangesResponse.of(since, service.changesSince(since, limit)));
+    }
+
+    // 変更のライブ配信（SSE）
+    @GetMapping(path = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changeStream() {
+        return changeStream.subscribe();
+    }
+
+    // カタログ全体の統計値（件数・価格・ヒストグラム・著者ランキング）
+    @GetMapping("/stats")
+    public CatalogStatistics.Summary stats(@RequestParam(defaultValue = "10") int top) {
+        return statistics.summary(Math.min(top, 100));
     }
 
     // 取得
+    // エンコード済みのバイト列をキャッシュから直接返す（JSON / CBOR / Smile は Accept で選ぶ）
+    // 同じ URL でも Accept で中身が変わるので、共有キャッシュ向けに Vary: Accept を付ける
     @GetMapping("/{id}")
-    public BookResponse get(@PathVariable Long id) {
-        return BookResponse.of(service.get(id));
+    public WebAsyncTask<ResponseEntity<byte[]>> get(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                                    String accept) {
+        MediaType type = responseCache.negotiate(accept);
+        return queries.run(() -> ResponseEntity.ok().contentType(type)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(responseCache.bytes(service.get(id), type)));
+    }
+
+    // 取得（コンパクト表示）
+    @GetMapping(path = "/{id}", params = "view=compact")
+    public WebAsyncTask<CompactBookResponse> getCompact(@PathVariable Long id) {
+        return queries.run(() -> CompactBookResponse.of(service.get(id)));
     }
 
     // 作成
+    // 同時に届いた作成は BookCreateBatcher でまとめて 1 トランザクションで保存される（有効な場合）
+    //   有効なときだけ CompletableFuture を返して非同期で応答する
+    //   無効（既定）のときは BookResponse をそのまま返す（非同期のディスパッチでフィルターを 2 回通さない）
+    //   戻り値の型は実際に返した値で決まる（CompletableFuture なら非同期、それ以外は JSON）
     @PostMapping
-    public BookResponse create(@RequestBody @Valid BookRequest req) {
+    public Object create(@RequestBody @Valid BookRequest req) {
         Book b = new Book();
         b.setTitle(req.title());
         b.setAuthor(req.author());
         b.setPrice(req.price());
-        return BookResponse.of(service.create(b));
+        if (!createBatcher.isEnabled()) {
+            return BookResponse.of(service.create(b));
+        }
+        return createBatcher.submit(b).thenApply(BookResponse::of);
     }
 
     // 更新（部分更新）
@@ -52,4 +145,37 @@ public class BookController {
     public void delete(@PathVariable Long id) {
         service.delete(id);
     }
+
+    // 一括更新（条件に一致する Book の価格・著者をまとめて変更）
+    // async=true のときはジョブとして実行し、202 とジョブの状態を返す
+    @PostMapping("/bulk/update")
+    public ResponseEntity<?> bulkUpdate(@RequestBody @Valid BookBulkUpdateRequest req,
+                                        @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return accepted(bulkService.submitUpdate(req.toCriteria(), req.toUpdate()));
+        }
+        return ResponseEntity.ok(new BookBulkResponse(bulkService.update(req.toCriteria(), req.toUpdate())));
+    }
+
+    // 一括削除（条件に一致する Book をまとめて削除。条件なしは不可）
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> bulkDelete(@RequestBody @Valid BookBulkDeleteRequest req,
+                                        @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return accepted(bulkService.submitDelete(req.toCriteria()));
+        }
+        return ResponseEntity.ok(new BookBulkResponse(bulkService.delete(req.toCriteria())));
+    }
+
+    // 一括処理ジョブの進み具合
+    @GetMapping("/bulk/jobs/{jobId}")
+    public BookBulkJob bulkJob(@PathVariable String jobId) {
+        return bulkService.job(jobId);
+    }
+
+    private static ResponseEntity<BookBulkJob> accepted(BookBulkJob job) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/books/bulk/jobs/" + job.id())
+                .body(job);
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.demo.web;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// -----------------------------------------------------
+// JFR イベント：/api/books へのリクエスト 1 件（BookRequestEventFilter が記録する）
+//   非同期で処理されたリクエストも、レスポンスが終わるまでを duration とする
+// -----------------------------------------------------
+@Name("com.example.demo.BookRequest")
+@Label("Book API Request")
+@Description("HTTP request handled by BookController")
+@Category({"Book Manager", "Web"})
+@StackTrace(false)
+public final class BookRequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+}
@@ -0,0 +1,57 @@
+package com.example.demo.web;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// ---------------------------------------------
+// /api/books へのリクエストごとに JFR イベント（BookRequestEvent）を記録するフィルタ
+//   ・JFR の記録が止まっている間は shouldCommit() が false になり、ほぼコストはかからない
+//   ・読み取り系は非同期（WebAsyncTask）なので、非同期処理が終わった時点で記録する
+// ---------------------------------------------
+@Component
+public class BookRequestEventFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/books");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        BookRequestEvent event = new BookRequestEvent();
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override public void onComplete(AsyncEvent e) { commit(event, request, response); }
+                    @Override public void onTimeout(AsyncEvent e) {}
+                    @Override public void onError(AsyncEvent e) {}
+                    @Override public void onStartAsync(AsyncEvent e) {}
+                });
+            } else {
+                commit(event, request, response);
+            }
+        }
+    }
+
+    private static void commit(BookRequestEvent event, HttpServletRequest request, HttpServletResponse response) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = request.getMethod();
+            event.path = request.getRequestURI();
+            event.status = response.getStatus();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.demo.web;
+
+import com.example.demo.domain.Book;
+import com.example.demo.service.BookBulkChangedEvent;
+import com.example.demo.service.BookChangedEvent;
+import com.example.demo.service.CacheInvalidationBus;
+import com.example.demo.web.dto.BookResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ---------------------------------------------
+// GET /api/books/{id} のレスポンスを「エンコード済みのバイト列」のままキャッシュする
+//   ・キーは (id, updatedAt, メディアタイプ)
+//     → 更新されると updatedAt が変わるので、古いバイト列が返ることはない
+//   ・上限はエントリ数ではなく合計バイト数。超えたら最も使われていないもの（LRU）から捨てる
+//   ・BookService の更新・削除（コミット後）で、その Book のエントリをまとめて捨てる
+//     他ノードでの更新・削除は CacheInvalidationBus 経由で届く
+//   ・ヒットした場合は BookResponse.of も Jackson のシリアライズも行わず、
+//     バイト列をそのまま出力ストリームへ書く（ByteArrayHttpMessageConverter）
+// ---------------------------------------------
+@Component
+public class BookResponseCache {
+
+    // 対応するメディアタイプ（Accept に何もなければ先頭の JSON）
+    static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final List<MediaType> SUPPORTED = List.of(MediaType.APPLICATION_JSON, CBOR, SMILE);
+
+    private record Key(long id, LocalDateTime updatedAt, MediaType type) {}
+
+    private final Map<MediaType, ObjectMapper> mappers;
+    private final long maxBytes;
+
+    // accessOrder = true の LinkedHashMap は「最近使われた順」に並ぶ（先頭が最も古い）
+    private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // Book ID → その Book のキー一覧（無効化のときに全件走査しないため）
+    private final Map<Long, List<Key>> keysById = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long bytes;
+
+    public BookResponseCache(ObjectMapper json, CacheInvalidationBus cacheBus,
+                             @Value("${app.response-cache.max-bytes:33554432}") long maxBytes) {
+        // JSON は Spring Boot の ObjectMapper（通常のレスポンスと同じ設定）、
+        // CBOR / Smile もその設定を引き継いだもの（WebConfig のコンバータと同じ作り方）を使う
+        this.mappers = Map.of(
+                MediaType.APPLICATION_JSON, json,
+                CBOR, json.copyWith(new CBORFactory()),
+                SMILE, json.copyWith(new SmileFactory()));
+        this.maxBytes = maxBytes;
+
+        // 他ノードからの無効化通知（key == null は全件）
+        cacheBus.subscribe(CacheInvalidationBus.BOOKS, key -> {
+            if (key == null) clear();
+            else evict(Long.valueOf(key));
+        });
+    }
+
+    // -----------------------------------------------------
+    // Accept ヘッダから返すメディアタイプを決める（対応していなければ JSON）
+    //   ・q 値の高い順に見る（同じ q 値の中では具体的なものを先に）
+    //   ・q=0 は「受け付けない」という意味なので候補から外す
+    // -----------------------------------------------------
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) return MediaType.APPLICATION_JSON;
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (IllegalArgumentException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> refused = accepted.stream().filter(a -> a.getQualityValue() == 0).toList();
+        accepted.removeAll(refused);
+
+        // sortBySpecificity は q 値を見ないので、その後に q 値で並べ直す（List.sort は安定ソート）
+        MimeTypeUtils.sortBySpecificity(accepted);
+        accepted.sort(Comparator.comparingDouble((MediaType a) -> a.getQualityValue()).reversed());
+
+        for (MediaType a : accepted) {
+            for (MediaType s : SUPPORTED) {
+                if (a.isCompatibleWith(s) && refused.stream().noneMatch(r -> r.includes(s))) return s;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    // -----------------------------------------------------
+    // エンコード済みのバイト列を返す（なければエンコードしてキャッシュする）
+    // -----------------------------------------------------
+    public byte[] bytes(Book b, MediaType type) {
+        Key key = new Key(b.getId(), b.getUpdatedAt(), type);
+
+        lock.lock();
+        try {
+            byte[] hit = entries.get(key);
+            if (hit != null) return hit;
+        } finally {
+            lock.unlock();
+        }
+
+        // エンコードはロックの外で行う（同じキーを同時にエンコードしても結果は同じ）
+        byte[] encoded = encode(b, type);
+        if (encoded.length > maxBytes) return encoded;
+
+        lock.lock();
+        try {
+            if (entries.putIfAbsent(key, encoded) == null) {
+                keysById.computeIfAbsent(key.id(), k -> new ArrayList<>(2)).add(key);
+                bytes += encoded.length;
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return encoded;
+    }
+
+    // -----------------------------------------------------
+    // 更新・削除された Book のエントリを捨てる（コミット後）
+    // -----------------------------------------------------
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(BookChangedEvent e) {
+        evict(e.bookId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(BookBulkChangedEvent e) {
+        e.bookIds().forEach(this::evict);
+    }
+
+    public void evict(Long id) {
+        lock.lock();
+        try {
+            List<Key> keys = keysById.remove(id);
+            if (keys == null) return;
+            for (Key k : keys) {
+                byte[] v = entries.remove(k);
+                if (v != null) bytes -= v.length;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            keysById.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 現在のキャッシュ合計バイト数
+    public long size() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 上限を超えている間、最も使われていないエントリから捨てる（ロック取得済みで呼ぶ）
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, byte[]>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<Key, byte[]> eldest = it.next();
+            it.remove();
+            bytes -= eldest.getValue().length;
+            List<Key> keys = keysById.get(eldest.getKey().id());
+            if (keys != null) {
+                keys.remove(eldest.getKey());
+                if (keys.isEmpty()) keysById.remove(eldest.getKey().id());
+            }
+        }
+    }
+
+    private byte[] encode(Book b, MediaType type) {
+        try {
+            return mappers.get(type).writeValueAsBytes(BookResponse.of(b));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode book " + b.getId(), e);
+        }
+    }
+}
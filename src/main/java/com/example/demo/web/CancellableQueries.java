@@ -0,0 +1,76 @@
+package com.example.demo.web;
+
+import com.example.demo.service.DatabaseUnavailableException;
+import com.example.demo.service.DbGuard;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// ---------------------------------------------
+// 読み取り API を「止められる」非同期処理として実行するヘルパー
+//   ・処理は専用のスレッドプール（db-query-N）で動き、Tomcat のスレッドはすぐ返す
+//     スレッド数は DB のコネクションプール（Hikari）と同じにする。それ以上並べても
+//     コネクション待ちになるだけなので、待ちは上限付きのキュー（app.db.query-queue）に積む
+//     キューもあふれたら TaskRejectedException → 503（Retry-After 付き）ですぐ断る
+//   ・リクエストが終わった時点（クライアントの切断・タイムアウトを含む）でまだ SQL が動いていれば
+//     DbGuard.Cancellation で Statement.cancel() する
+//   ・app.db.request-timeout を過ぎたら 503 を返す
+//
+//   ※ 切断に気づけるのはコンテナが気づいたとき（HTTP/2 のストリームのリセット、
+//     接続のエラーなど）。HTTP/1.1 で何も送受信していない間の切断は、タイムアウトで止まる
+// ---------------------------------------------
+@Component
+public class CancellableQueries {
+
+    private final DbGuard db;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor pool;
+    private final AsyncTaskExecutor executor;
+
+    public CancellableQueries(DbGuard db,
+                              @Value("${app.db.request-timeout:PT30S}") Duration timeout,
+                              @Value("${app.db.query-threads:${spring.datasource.hikari.maximum-pool-size:10}}")
+                              int threads,
+                              @Value("${app.db.query-queue:100}") int queueCapacity) {
+        this.db = db;
+        this.timeoutMillis = timeout.toMillis();
+
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "db-query-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = new ConcurrentTaskExecutor(pool);
+    }
+
+    public <T> WebAsyncTask<T> run(Supplier<T> work) {
+        DbGuard.Cancellation cancellation = new DbGuard.Cancellation();
+        WebAsyncTask<T> task = new WebAsyncTask<>(timeoutMillis, executor,
+                () -> db.withCancellation(cancellation, work));
+        task.onTimeout(() -> {
+            throw new DatabaseUnavailableException("Request timed out", null, null);
+        });
+        // 正常終了・タイムアウト・エラーのどれでも呼ばれる（終わっていれば cancel しても何も起きない）
+        task.onCompletion(cancellation::cancel);
+        return task;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// ---------------------------------------------
+// 最初のリクエストが完了するまでの時間（JVM 起動から）を 1 回だけログに出すフィルタ
+//   ・高速起動モード（AOT / CDS / lazy プロファイル）の効果を比べるための指標
+//   ・2 回目以降は AtomicBoolean を見るだけなので、ほぼコストはかからない
+// ---------------------------------------------
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FirstRequestTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(FirstRequestTimingFilter.class);
+
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!done.get() && done.compareAndSet(false, true)) {
+                log.info("First request ({} {}) completed {} ms after JVM start",
+                        request.getMethod(), request.getRequestURI(),
+                        ManagementFactory.getRuntimeMXBean().getUptime());
+            }
+        }
+    }
+}
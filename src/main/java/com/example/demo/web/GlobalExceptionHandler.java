@@ -1,5 +1,9 @@
 package com.example.demo.web;
 
+import com.example.demo.service.DatabaseUnavailableException;
+import com.example.demo.service.RecordingDisabledException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -65,4 +69,46 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.NOT_FOUND)
                 .body(Map.of("message", ex.getMessage()));
     }
+
+    // =========================================================
+    // DatabaseUnavailableException をキャッチするハンドラ
+    // =========================================================
+
+    // DB が遮断中（サーキットブレーカーが OPEN）・タイムアウト・接続エラーのとき（DbGuard が投げる）
+    // HTTP 503 Service Unavailable を返す。再試行の目安が分かれば Retry-After（秒）も付ける
+    @ExceptionHandler(DatabaseUnavailableException.class)
+    public ResponseEntity<?> handleDatabaseUnavailable(DatabaseUnavailableException ex) {
+        ResponseEntity.BodyBuilder res = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (ex.getRetryAfter() != null) {
+            res.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())));
+        }
+        return res.body(Map.of("message", ex.getMessage()));
+    }
+
+    // =========================================================
+    // TaskRejectedException をキャッチするハンドラ
+    // =========================================================
+
+    // 読み取り API の実行待ち（CancellableQueries のキュー）があふれたとき
+    // DB のコネクション数以上は同時に動かせないので、HTTP 503 ですぐに断り、少し待ってからの再試行を促す
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<?> handleRejected(TaskRejectedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", "Too many concurrent requests"));
+    }
+
+    // =========================================================
+    // RecordingDisabledException をキャッチするハンドラ
+    // =========================================================
+
+    // JFR の常時記録が無効なインスタンスで /admin/jfr/dump が呼ばれたとき
+    // 「見つからない」ではなく、このインスタンスでは使えない機能なので HTTP 503 を返す
+    @ExceptionHandler(RecordingDisabledException.class)
+    public ResponseEntity<?> handleRecordingDisabled(RecordingDisabledException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("message", ex.getMessage()));
+    }
 }
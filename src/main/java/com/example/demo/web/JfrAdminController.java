@@ -0,0 +1,64 @@
+package com.example.demo.web;
+
+import com.example.demo.service.ContinuousRecording;
+import com.example.demo.service.JfrSummarizer;
+import com.example.demo.service.RecordingDisabledException;
+import com.example.demo.web.dto.JfrDumpResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// ---------------------------------------------
+// 常時記録している JFR の書き出し（運用向け。ROLE_ADMIN のみ：SecurityConfig）
+//   POST /admin/jfr/dump?minutes=5     … 直近 5 分を書き出し、要約を返す
+//   GET  /admin/jfr/dumps/{name}       … 書き出したファイルをダウンロードする（JMC で開ける）
+// ---------------------------------------------
+@RestController
+@RequestMapping("/admin/jfr")
+public class JfrAdminController {
+
+    // 書き出せる期間の上限（記録自体も app.jfr.max-age までしか残っていない）
+    static final int MAX_MINUTES = 60;
+
+    private final ContinuousRecording recording;
+    private final JfrSummarizer summarizer;
+
+    public JfrAdminController(ContinuousRecording recording, JfrSummarizer summarizer) {
+        this.recording = recording;
+        this.summarizer = summarizer;
+    }
+
+    // 直近 minutes 分を書き出して要約を返す（top は各ランキングの件数）
+    // 記録が無効なら 503（RecordingDisabledException）
+    @PostMapping("/dump")
+    public JfrDumpResponse dump(@RequestParam(defaultValue = "5") int minutes,
+                                @RequestParam(defaultValue = "10") int top) throws IOException {
+        if (!recording.isRecording()) {
+            throw new RecordingDisabledException();
+        }
+        Duration last = Duration.ofMinutes(Math.max(1, Math.min(minutes, MAX_MINUTES)));
+        Path file = recording.dump(last);
+        return new JfrDumpResponse(file.getFileName().toString(), Files.size(file),
+                summarizer.summarize(file, Math.max(1, Math.min(top, 100))));
+    }
+
+    // 書き出したダンプのダウンロード（存在しない・名前が不正な場合は 404）
+    @GetMapping("/dumps/{name}")
+    public ResponseEntity<Resource> download(@PathVariable String name) {
+        Path file = recording.findDump(name);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(name).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
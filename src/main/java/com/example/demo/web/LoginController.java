@@ -1,11 +1,38 @@
 package com.example.demo.web;
 
+import com.example.demo.domain.Book;
+import com.example.demo.service.BookService;
+import com.example.demo.service.DatabaseUnavailableException;
+import com.example.demo.web.dto.BookResponse;
+import com.example.demo.web.dto.HomePageState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @Controller
 public class LoginController {
 
+    private static final Logger log = LoggerFactory.getLogger(LoginController.class);
+
+    // ホーム画面の最初の表示（画面の JS の初期値と同じにしておく）
+    static final int HOME_PAGE_SIZE = 10;
+    static final String HOME_SORT = "createdAt,desc";
+
+    private final BookService service;
+    private final boolean serverRender;
+
+    // app.ui.server-render = true のとき、/home の最初のページをサーバー側で描画する
+    public LoginController(BookService service, @Value("${app.ui.server-render:true}") boolean serverRender) {
+        this.service = service;
+        this.serverRender = serverRender;
+    }
+
     // ------------------------------
     //  ログイン画面の表示
     // ------------------------------
@@ -25,8 +52,25 @@ public class LoginController {
     // ------------------------------
 
     // HTTP GET /home でホーム画面を表示
+    //
+    // サーバー側描画が有効な場合は、最初のページ（作成日の新しい順に 10 件）を
+    // ここで取得してテンプレートに直接描画し、ページ情報も JSON で埋め込む
+    // → 画面を開いたあとの GET /api/books（2 往復目）が不要になる
+    //   2 ページ目以降・検索・並び替えは、これまでどおり画面の JS が API を呼ぶ
     @GetMapping("/home")
-    public String home() {
+    public String home(Model model) {
+        if (serverRender) {
+            try {
+                Page<Book> page = service.list(null,
+                        PageRequest.of(0, HOME_PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")));
+                model.addAttribute("books", page.map(BookResponse::of).getContent());
+                model.addAttribute("initialState", new HomePageState(0, HOME_PAGE_SIZE, HOME_SORT, "",
+                        page.getTotalPages(), page.getTotalElements()));
+            } catch (DatabaseUnavailableException e) {
+                // 取得できなければ空のまま返し、画面の JS に任せる（従来の表示方法）
+                log.warn("Rendering /home without books: {}", e.getMessage());
+            }
+        }
 
         // 返却値 "index" もテンプレート名
         // → src/main/resources/templates/index.html を表示する
@@ -0,0 +1,10 @@
+package com.example.demo.web.dto;
+
+import java.util.List;
+
+// ------- SSE で配信する「一括更新・一括削除」の通知 DTO -------
+// type は "UPDATED" / "DELETED"。最新の内容は差分取得（/api/books/changes）で取り直す。
+public record BookBulkChangeNotice(
+        String type,          // 変更の種類
+        List<Long> bookIds    // 対象の Book ID
+) {}
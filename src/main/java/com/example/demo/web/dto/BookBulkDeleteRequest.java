@@ -0,0 +1,23 @@
+package com.example.demo.web.dto;
+
+import com.example.demo.repository.BookSearchCriteria;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+// ------- POST /api/books/bulk/delete のリクエストボディ -------
+// 例: タイトルに「試供品」を含む本を削除
+//   { "filter": { "q": "試供品" } }
+// 誤って全件を消さないよう、条件を 1 つ以上指定する必要がある。
+public record BookBulkDeleteRequest(
+        @NotNull BookSearchRequest filter   // 対象の条件
+) {
+
+    @AssertTrue(message = "filter must have at least one condition")
+    public boolean isFilterSpecified() {
+        return filter == null || !filter.toCriteria().isUnrestricted();
+    }
+
+    public BookSearchCriteria toCriteria() {
+        return filter.toCriteria();
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.web.dto;
+
+// ------- 一括更新・一括削除（同期実行）のレスポンス DTO -------
+public record BookBulkResponse(
+        long affected   // 更新・削除した件数
+) {}
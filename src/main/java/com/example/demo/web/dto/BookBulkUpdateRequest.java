@@ -0,0 +1,33 @@
+package com.example.demo.web.dto;
+
+import com.example.demo.repository.BookBulkUpdate;
+import com.example.demo.repository.BookSearchCriteria;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+// ------- POST /api/books/bulk/update のリクエストボディ -------
+// 例: 著者 Taro の本を 1 割値上げ
+//   { "filter": { "author": "Taro" }, "pricePercent": 10 }
+// filter の項目は GET /api/books/search と同じ（省略した項目は条件に含めない）。
+public record BookBulkUpdateRequest(
+        @NotNull BookSearchRequest filter,  // 対象の条件
+        @Min(-100) Integer pricePercent,    // 価格の増減率（%）
+        Integer priceDelta,                 // 価格の増減額（円）
+        @Size(max = 80) String author       // 著者の置き換え（BookRequest と同じく 80 文字まで）
+) {
+
+    @AssertTrue(message = "at least one of pricePercent, priceDelta, author is required")
+    public boolean isChangeSpecified() {
+        return !toUpdate().isEmpty();
+    }
+
+    public BookSearchCriteria toCriteria() {
+        return filter.toCriteria();
+    }
+
+    public BookBulkUpdate toUpdate() {
+        return new BookBulkUpdate(pricePercent, priceDelta, author);
+    }
+}
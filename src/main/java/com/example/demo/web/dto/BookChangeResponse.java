@@ -0,0 +1,23 @@
+package com.example.demo.web.dto;
+
+import com.example.demo.service.BookChangeFeed;
+
+// ------- 差分取得・SSE で返す「変更 1 件分」のレスポンス DTO -------
+// type は "CREATED" / "UPDATED" / "DELETED"。
+// DELETED の場合 book は null（トゥームストーン）。
+public record BookChangeResponse(
+        long seq,           // 変更番号
+        String type,        // 変更の種類
+        Long bookId,        // 対象の Book ID
+        BookResponse book   // 変更後の Book（削除時は null）
+) {
+
+    public static BookChangeResponse of(BookChangeFeed.Entry e) {
+        return new BookChangeResponse(
+                e.seq(),
+                e.type().name(),
+                e.bookId(),
+                e.book() == null ? null : BookResponse.of(e.book())
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.web.dto;
+
+import com.example.demo.service.BookChangeFeed;
+
+import java.util.List;
+
+// ------- GET /api/books/changes のレスポンス DTO -------
+// クライアントは nextToken を保存しておき、次回の since に渡す。
+// hasMore が true の間は続けて取得すればよい。
+public record BookChangesResponse(
+        long since,                         // 今回の since
+        long nextToken,                     // 次回の since
+        boolean hasMore,                    // 続きがあるか
+        List<BookChangeResponse> changes    // 変更一覧（seq の昇順）
+) {
+
+    public static BookChangesResponse of(long since, BookChangeFeed feed) {
+        return new BookChangesResponse(
+                since,
+                feed.nextToken(),
+                feed.hasMore(),
+                feed.entries().stream().map(BookChangeResponse::of).toList()
+        );
+    }
+}
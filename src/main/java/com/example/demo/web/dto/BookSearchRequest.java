@@ -0,0 +1,28 @@
+package com.example.demo.web.dto;
+
+import com.example.demo.repository.BookSearchCriteria;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// ------- GET /api/books/search のクエリパラメータを受け取る DTO -------
+// 例: /api/books/search?author=Taro&minPrice=1000&maxPrice=3000
+//                      &createdFrom=2024-01-01T00:00:00&sort=createdAt,desc
+// 日時は ISO 形式（yyyy-MM-ddTHH:mm:ss）で受け取る。
+public record BookSearchRequest(
+        String q,
+        String author,
+        Integer minPrice,
+        Integer maxPrice,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo
+) {
+
+    // リポジトリ層の検索条件に変換する
+    public BookSearchCriteria toCriteria() {
+        return new BookSearchCriteria(q, author, minPrice, maxPrice,
+                createdFrom, createdTo, updatedFrom, updatedTo);
+    }
+}
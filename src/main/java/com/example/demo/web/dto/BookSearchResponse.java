@@ -0,0 +1,24 @@
+package com.example.demo.web.dto;
+
+import com.example.demo.repository.FacetCount;
+import com.example.demo.service.BookSearchResult;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+// ------- GET /api/books/search のレスポンス DTO -------
+// 検索結果のページと、同じ条件でのファセット件数を 1 レスポンスで返す。
+public record BookSearchResponse(
+        Page<BookResponse> results,         // 検索結果（ページング付き）
+        List<FacetCount> authors,           // 著者ごとの件数
+        List<FacetCount> priceBuckets       // 価格帯ごとの件数
+) {
+
+    public static BookSearchResponse of(BookSearchResult r) {
+        return new BookSearchResponse(
+                r.page().map(BookResponse::of),
+                r.authors(),
+                r.priceBuckets()
+        );
+    }
+}
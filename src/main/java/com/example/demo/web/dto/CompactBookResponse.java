@@ -0,0 +1,35 @@
+package com.example.demo.web.dto;
+
+import com.example.demo.domain.Book;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// ------- サービス間通信向けの「コンパクトな」Book レスポンス DTO -------
+// ・日時を ISO 文字列ではなくエポックミリ秒（long）で返す
+//   （文字列の生成・パースが不要になり、バイナリ形式では 8 バイト以内に収まる）
+// ・LocalDateTime にはタイムゾーンがないため、サーバーのデフォルトタイムゾーンで換算する
+public record CompactBookResponse(
+        Long id,
+        String title,
+        String author,
+        Integer price,
+        Long createdAt,     // 作成日時（エポックミリ秒）
+        Long updatedAt      // 更新日時（エポックミリ秒）
+) {
+
+    public static CompactBookResponse of(Book b) {
+        return new CompactBookResponse(
+                b.getId(),
+                b.getTitle(),
+                b.getAuthor(),
+                b.getPrice(),
+                epochMillis(b.getCreatedAt()),
+                epochMillis(b.getUpdatedAt())
+        );
+    }
+
+    private static Long epochMillis(LocalDateTime t) {
+        return t == null ? null : t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.web.dto;
+
+// ------- ホーム画面（/home）にサーバー側で埋め込む初期状態 -------
+// 画面の JS はこれを読んで、最初の GET /api/books を省略する。
+public record HomePageState(
+        int page,           // 表示中のページ番号（0 始まり）
+        int size,           // 1 ページの件数
+        String sort,        // 並び順（"createdAt,desc" など。API の sort パラメータと同じ形式）
+        String q,           // 検索ワード
+        int totalPages,     // 総ページ数
+        long totalElements  // 総件数
+) {}
@@ -0,0 +1,10 @@
+package com.example.demo.web.dto;
+
+import com.example.demo.service.JfrSummary;
+
+// ------- JFR ダンプのレスポンス DTO -------
+public record JfrDumpResponse(
+        String name,         // ダンプのファイル名（GET /admin/jfr/dumps/{name} でダウンロードできる）
+        long size,           // ファイルサイズ（バイト）
+        JfrSummary summary   // アロケーション・CPU・ロック・アプリ独自イベントの上位
+) {}
@@ -0,0 +1,27 @@
+package com.example.demo.web.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.function.Function;
+
+// ------- 最小限のページ情報だけを持つページ DTO -------
+// Page をそのまま返すと pageable / sort / first / last / empty など
+// 毎回同じようなメタデータが付くため、必要な 4 項目だけにしたもの。
+// （totalPages などはクライアント側で total と size から計算できる）
+public record LeanPage<T>(
+        List<T> content,    // このページの中身
+        int page,           // ページ番号（0 始まり）
+        int size,           // ページサイズ
+        long total          // 全件数
+) {
+
+    public static <S, T> LeanPage<T> of(Page<S> page, Function<? super S, ? extends T> mapper) {
+        return new LeanPage<>(
+                page.getContent().stream().<T>map(mapper).toList(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements()
+        );
+    }
+}
@@ -0,0 +1,21 @@
+-- ------------------------------------------------------------
+-- users テーブルを SQL で直接更新・削除したときにも、
+-- 各ノードのユーザーキャッシュを無効化するためのトリガー（PostgreSQL 用・任意）
+--
+--   アプリの CacheInvalidationBus（LISTEN cache_invalidation）が受け取り、
+--   "users:<username>" のキャッシュを捨てる
+--
+--   実行例:
+--     docker exec -i sample-postgres psql -U appuser -d appdb < src/main/resources/db/postgres-cache-invalidation.sql
+-- ------------------------------------------------------------
+CREATE OR REPLACE FUNCTION notify_users_cache_invalidation() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('cache_invalidation', 'users:' || OLD.username);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_cache_invalidation ON users;
+CREATE TRIGGER users_cache_invalidation
+    AFTER UPDATE OR DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION notify_users_cache_invalidation();
@@ -0,0 +1,48 @@
+-- ------------------------------------------------------------
+-- コールド層（book_archive）を created_at の範囲パーティションにする（PostgreSQL 用・任意）
+--
+--   ・アプリ（local プロファイル）を初めて起動する前に実行する
+--     （ddl-auto: update は既存のテーブルを作り直さないので、このテーブル定義がそのまま使われる）
+--   ・パーティションキーを主キーに含める必要があるため、主キーは (id, created_at)
+--     ID はホット層（book）の採番をそのまま引き継ぐので、id だけでも重複はしない
+--   ・年ごとのパーティションは、アプリのアーカイブ（BookTiering.archive → ArchivePartitions）が
+--     移す対象の前年・同年・翌年の分を自動で作る（下の CREATE は初回の分）。範囲外の行は book_archive_default に入る
+--   ・default に既に入っている年のパーティションは、その行があるままでは作れない。作るときは
+--       BEGIN;
+--       ALTER TABLE book_archive DETACH PARTITION book_archive_default;
+--       CREATE TABLE book_archive_2026 PARTITION OF book_archive FOR VALUES FROM ('2026-01-01') TO ('2027-01-01');
+--       INSERT INTO book_archive SELECT * FROM book_archive_default WHERE created_at >= '2026-01-01' AND created_at < '2027-01-01';
+--       DELETE FROM book_archive_default WHERE created_at >= '2026-01-01' AND created_at < '2027-01-01';
+--       ALTER TABLE book_archive ATTACH PARTITION book_archive_default DEFAULT;
+--       COMMIT;
+--   ・古い年のパーティションは DETACH PARTITION で切り離して、別の場所へ退避・削除できる
+--
+--   実行例:
+--     docker exec -i sample-postgres psql -U appuser -d appdb < src/main/resources/db/postgres-partitioning.sql
+-- ------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS book_archive (
+    id          BIGINT       NOT NULL,
+    title       VARCHAR(120) NOT NULL,
+    author      VARCHAR(80)  NOT NULL,
+    price       INTEGER,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    archived_at TIMESTAMP(6),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_book_archive_created_at ON book_archive (created_at);
+
+CREATE TABLE IF NOT EXISTS book_archive_2022 PARTITION OF book_archive
+    FOR VALUES FROM ('2022-01-01') TO ('2023-01-01');
+CREATE TABLE IF NOT EXISTS book_archive_2023 PARTITION OF book_archive
+    FOR VALUES FROM ('2023-01-01') TO ('2024-01-01');
+CREATE TABLE IF NOT EXISTS book_archive_2024 PARTITION OF book_archive
+    FOR VALUES FROM ('2024-01-01') TO ('2025-01-01');
+CREATE TABLE IF NOT EXISTS book_archive_2025 PARTITION OF book_archive
+    FOR VALUES FROM ('2025-01-01') TO ('2026-01-01');
+CREATE TABLE IF NOT EXISTS book_archive_2026 PARTITION OF book_archive
+    FOR VALUES FROM ('2026-01-01') TO ('2027-01-01');
+CREATE TABLE IF NOT EXISTS book_archive_2027 PARTITION OF book_archive
+    FOR VALUES FROM ('2027-01-01') TO ('2028-01-01');
+CREATE TABLE IF NOT EXISTS book_archive_default PARTITION OF book_archive DEFAULT;
@@ -0,0 +1,31 @@
+package com.example.demo;
+
+import com.example.demo.service.CatalogSnapshots;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// 既定の設定（application.yml、組み込み H2）でアプリケーション全体が起動することを確認する
+// ・application.yml の値の書き方の誤り（YAML の型の解釈など）は起動時にしか分からないため
+@SpringBootTest
+class DemoApplicationTests {
+
+    @Autowired
+    CatalogSnapshots snapshots;
+
+    @Value("${app.snapshot.mode}")
+    String snapshotMode;
+
+    @DisplayName("既定の設定でコンテキストが起動し、app.snapshot.mode が文字列の off として読まれること")
+    @Test
+    void contextLoads() {
+        assertNotNull(snapshots);
+        assertEquals("off", snapshotMode);
+        assertEquals(CatalogSnapshots.Mode.OFF, CatalogSnapshots.Mode.of(snapshotMode));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// CacheBusConfig の「LISTEN / NOTIFY とポーリングのどちらを使うか」の判定のテスト
+class CacheBusConfigTest {
+
+    // getDatabaseProductName が product を返す DataSource
+    private static DataSource dataSource(String product) throws Exception {
+        DatabaseMetaData meta = mock(DatabaseMetaData.class);
+        when(meta.getDatabaseProductName()).thenReturn(product);
+        Connection con = mock(Connection.class);
+        when(con.getMetaData()).thenReturn(meta);
+        DataSource ds = mock(DataSource.class);
+        when(ds.getConnection()).thenReturn(con);
+        return ds;
+    }
+
+    @DisplayName("auto では接続先が PostgreSQL のときだけ LISTEN / NOTIFY を使うこと")
+    @Test
+    void testAuto() throws Exception {
+        assertTrue(CacheBusConfig.usePgNotify("auto", dataSource("PostgreSQL")));
+        assertFalse(CacheBusConfig.usePgNotify("auto", dataSource("H2")));
+    }
+
+    @DisplayName("postgres / polling の指定は接続先より優先され、polling では DB に問い合わせないこと")
+    @Test
+    void testExplicitMode() throws Exception {
+        assertTrue(CacheBusConfig.usePgNotify("postgres", dataSource("H2")));
+
+        DataSource ds = dataSource("PostgreSQL");
+        assertFalse(CacheBusConfig.usePgNotify("polling", ds));
+        verify(ds, never()).getConnection();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// CompactSessionSerializer の単体テスト（Spring は起動しない）
+class CompactSessionSerializerTest {
+
+    private final CompactSessionSerializer serializer =
+            new CompactSessionSerializer(getClass().getClassLoader());
+
+    @DisplayName("ログイン状態はユーザー名と権限だけで保存され、読み戻すと同じ認証状態になること")
+    @Test
+    void testSecurityContextRoundTrip() {
+        User user = new User("taro", "secret", AuthorityUtils.createAuthorityList("ROLE_USER"));
+        SecurityContext ctx = new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+
+        byte[] compact = serializer.serialize(ctx);
+        byte[] java = new SerializingConverter().convert(ctx);
+        assertTrue(compact.length * 10 < java.length, compact.length + " bytes vs " + java.length + " bytes");
+
+        SecurityContext restored = (SecurityContext) serializer.deserialize(compact);
+        assertTrue(restored.getAuthentication().isAuthenticated());
+        assertEquals("taro", restored.getAuthentication().getName());
+        assertEquals(Set.of("ROLE_USER"),
+                AuthorityUtils.authorityListToSet(restored.getAuthentication().getAuthorities()));
+        assertInstanceOf(User.class, restored.getAuthentication().getPrincipal());
+    }
+
+    @DisplayName("CSRF トークンとそれ以外の属性も読み戻せること")
+    @Test
+    void testOtherAttributesRoundTrip() {
+        DefaultCsrfToken token = new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "abc123");
+        DefaultCsrfToken restoredToken = (DefaultCsrfToken) serializer.deserialize(serializer.serialize(token));
+        assertEquals("X-CSRF-TOKEN", restoredToken.getHeaderName());
+        assertEquals("_csrf", restoredToken.getParameterName());
+        assertEquals("abc123", restoredToken.getToken());
+
+        // 対象外の属性は Java シリアライズのまま
+        List<String> other = new ArrayList<>(List.of("a", "b"));
+        assertEquals(other, serializer.deserialize(serializer.serialize(other)));
+    }
+}
@@ -5,7 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -20,6 +26,15 @@ class BookRepositoryTest {
     @Autowired
     BookRepository repo;
 
+    @Autowired
+    ArchivedBookRepository archiveRepo;
+
+    @Autowired
+    CatalogBookRepository catalogRepo;
+
+    @Autowired
+    BookChangeRepository changeRepo;
+
     // テストメソッドであることを示すアノテーション
     // ・このメソッドが1つのテストケースとして実行される
     @Test
@@ -45,4 +60,150 @@ class BookRepositoryTest {
         // ・さきほど保存した「JPA入門」だけがヒットするはず、という仕様をテストしている
         assertEquals(1, page.getTotalElements());
     }
+
+    // 複合条件検索とファセット集計のテスト
+    @Test
+    void SearchedByCriteriaWithFacets_Test() {
+
+        // ---- ① テストデータを作成（著者 2 人・価格はばらばら） ----
+        repo.save(book("Java入門", "Taro", 1200));
+        repo.save(book("Java応用", "Taro", 2800));
+        repo.save(book("Spring入門", "Hanako", 1500));
+        repo.save(book("価格未定", "Hanako", null));
+
+        // ---- ② 価格 1000〜2000 円で検索（著者・日付は未指定） ----
+        Specification<Book> spec = BookSpecifications.matching(
+                new BookSearchCriteria(null, null, 1000, 2000, null, null, null, null));
+        Page<Book> page = repo.findAll(spec, PageRequest.of(0, 10, Sort.by("price")));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals("Java入門", page.getContent().get(0).getTitle());
+
+        // ---- ③ 同じ条件でのファセット件数 ----
+        // 著者別：Taro 1 件（1200）、Hanako 1 件（1500）
+        assertEquals(List.of(new FacetCount("Hanako", 1), new FacetCount("Taro", 1)),
+                repo.authorFacets(spec, 10));
+        // 価格帯別（1000 円刻み）：1000〜1999 に 2 件
+        assertEquals(List.of(new FacetCount("1000", 2)), repo.priceFacets(spec, 1000));
+
+        // ---- ④ 条件なしの場合は全件が対象（価格 null の行は価格帯に入らない） ----
+        Specification<Book> all = BookSpecifications.matching(
+                new BookSearchCriteria(null, null, null, null, null, null, null, null));
+        assertEquals(List.of(new FacetCount("Hanako", 2), new FacetCount("Taro", 2)),
+                repo.authorFacets(all, 10));
+        assertEquals(List.of(new FacetCount("1000", 2), new FacetCount("2000", 1)),
+                repo.priceFacets(all, 1000));
+    }
+
+    // タイトル検索の % と _ がワイルドカードとして扱われないことのテスト
+    @Test
+    void SearchedByTitleWithLikeWildcards_Test() {
+        repo.save(book("100% Java", "Taro", 1000));
+        repo.save(book("1000 Java", "Taro", 1000));
+        repo.save(book("snake_case入門", "Taro", 1000));
+        repo.save(book("snakeXcase入門", "Taro", 1000));
+
+        assertEquals(List.of("100% Java"), titles(new BookSearchCriteria("100%", null, null, null, null, null, null, null)));
+        assertEquals(List.of("snake_case入門"), titles(new BookSearchCriteria("e_c", null, null, null, null, null, null, null)));
+    }
+
+    private List<String> titles(BookSearchCriteria c) {
+        return repo.findAll(BookSpecifications.matching(c)).stream().map(Book::getTitle).toList();
+    }
+
+    // ホット層 → コールド層への移動と、両層をまとめたビュー（CatalogBook）のテスト
+    @Test
+    void ArchivedAndReadAcrossTiers_Test() {
+
+        // ---- ① 2 冊保存し、1 冊をコールド層へ移す ----
+        Book old = repo.saveAndFlush(book("古い本", "Taro", 1000));
+        repo.saveAndFlush(book("新しい本", "Hanako", 2000));
+
+        assertEquals(1, archiveRepo.copyFromHot(List.of(old.getId())));
+        repo.deleteAllByIdInBatch(List.of(old.getId()));
+
+        // ---- ② ホット層は 1 冊、コールド層は ID を引き継いで 1 冊 ----
+        assertEquals(1, repo.count());
+        assertEquals("古い本", archiveRepo.findById(old.getId()).orElseThrow().getTitle());
+        assertEquals(1, archiveRepo.findNewestFirst(0, 10).size());
+
+        // ---- ③ 両層をまとめたビューでは 2 冊とも見える ----
+        assertEquals(2, catalogRepo.count());
+        assertEquals(1, catalogRepo.findByTitleContainingIgnoreCase("古い", Pageable.ofSize(10)).getTotalElements());
+
+        // ---- ④ 更新・削除の前にホット層へ戻せる（ID はそのまま） ----
+        assertEquals(List.of(old.getId()), archiveRepo.lockIds(List.of(old.getId(), -1L)));
+        assertEquals(1, repo.copyFromArchive(List.of(old.getId())));
+        archiveRepo.deleteAllByIdInBatch(List.of(old.getId()));
+
+        assertEquals("古い本", repo.findById(old.getId()).orElseThrow().getTitle());
+        assertEquals(0, archiveRepo.count());
+        assertEquals(2, catalogRepo.count());
+    }
+
+    // アーカイブ対象の ID を古い順に行ロック付きで取れること（FOR UPDATE SKIP LOCKED）
+    @Test
+    void LockedIdsCreatedBefore_Test() {
+        Book a = repo.saveAndFlush(book("本A", "Taro", 1000));
+        Book b = repo.saveAndFlush(book("本B", "Taro", 1000));
+        repo.saveAndFlush(book("本C", "Taro", 1000));
+
+        LocalDateTime later = LocalDateTime.now().plusMinutes(1);
+        assertEquals(List.of(a.getId(), b.getId()), repo.lockIdsCreatedBefore(later, 2));
+        assertEquals(List.of(), repo.lockIdsCreatedBefore(LocalDateTime.now().minusDays(1), 2));
+    }
+
+    // 条件指定の一括更新（キーセットで区切った ID + UPDATE 1 本）のテスト
+    @Test
+    void BulkUpdatedByCriteria_Test() {
+
+        // ---- ① Taro の本 3 冊（1 冊は価格未定）と Hanako の本 1 冊 ----
+        Book a = repo.saveAndFlush(book("本A", "Taro", 1000));
+        Book b = repo.saveAndFlush(book("本B", "Taro", 2005));
+        repo.saveAndFlush(book("本C", "Taro", null));
+        repo.saveAndFlush(book("本D", "Hanako", 3000));
+
+        // ---- ② Taro の本を id 順に 2 件ずつ取り出す ----
+        Specification<Book> taro = BookSpecifications.matching(
+                new BookSearchCriteria(null, "Taro", null, null, null, null, null, null));
+        List<Long> first = repo.lockIdsAfter(taro, 0, 2);
+        assertEquals(List.of(a.getId(), b.getId()), first);
+        assertEquals(1, repo.lockIdsAfter(taro, first.get(1), 2).size());
+
+        // ---- ③ 1 割値上げ（1 円未満は切り捨て）。変更履歴も 2 件残る ----
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        assertEquals(2, repo.updateByIds(first, new BookBulkUpdate(10, null, null), now));
+        assertEquals(2, changeRepo.recordAll(first, "UPDATED"));
+
+        assertEquals(1100, repo.findById(a.getId()).orElseThrow().getPrice());
+        assertEquals(2205, repo.findById(b.getId()).orElseThrow().getPrice());
+        assertEquals(now, repo.findById(a.getId()).orElseThrow().getUpdatedAt());
+        assertEquals(2, changeRepo.count());
+    }
+
+    // 一括更新の価格計算が int であふれず、0 ～ int の上限に収まること
+    @Test
+    void BulkUpdatedPriceDoesNotOverflow_Test() {
+        Book big = repo.saveAndFlush(book("高い本", "Taro", 100_000_000));
+        Book small = repo.saveAndFlush(book("安い本", "Taro", 1000));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        // 100,000,000 × 50 は int の上限を超えるが、long で計算するので正しく 1.5 倍になる
+        repo.updateByIds(List.of(big.getId()), new BookBulkUpdate(50, null, null), now);
+        assertEquals(150_000_000, repo.findById(big.getId()).orElseThrow().getPrice());
+
+        // 上限を超える結果は上限に、0 未満は 0 に収める
+        repo.updateByIds(List.of(big.getId()), new BookBulkUpdate(2000, null, null), now);
+        repo.updateByIds(List.of(small.getId()), new BookBulkUpdate(null, -5000, null), now);
+        assertEquals(Integer.MAX_VALUE, repo.findById(big.getId()).orElseThrow().getPrice());
+        assertEquals(0, repo.findById(small.getId()).orElseThrow().getPrice());
+    }
+
+    private static Book book(String title, String author, Integer price) {
+        Book b = new Book();
+        b.setTitle(title);
+        b.setAuthor(author);
+        b.setPrice(price);
+        return b;
+    }
 }
@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.AppUser;
+import com.example.demo.repository.AppUserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// AppUserDetailsService のユーザー情報キャッシュのテスト（期限と無効化通知）
+class AppUserDetailsServiceTest {
+
+    private final AppUserRepository repo = mock(AppUserRepository.class);
+    private final CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+
+    private static AppUser user(String username, boolean enabled) {
+        AppUser u = new AppUser();
+        u.setUsername(username);
+        u.setPassword("$2a$10$hash");
+        u.setRole("ROLE_USER");
+        u.setEnabled(enabled);
+        return u;
+    }
+
+    @DisplayName("期限内は DB を引かず、返すのは毎回別のコピーであること")
+    @Test
+    void testCachedWithinTtl() {
+        when(repo.findByUsername("taro")).thenReturn(Optional.of(user("taro", true)));
+        AppUserDetailsService service = new AppUserDetailsService(repo, bus, Duration.ofMinutes(5));
+
+        UserDetails first = service.loadUserByUsername("taro");
+        UserDetails second = service.loadUserByUsername("taro");
+
+        verify(repo, times(1)).findByUsername("taro");
+        assertNotSame(first, second);                       // eraseCredentials の影響を受けない
+        assertEquals("$2a$10$hash", second.getPassword());
+    }
+
+    @DisplayName("期限が過ぎたら DB から取り直すこと")
+    @Test
+    void testReloadedAfterTtl() {
+        when(repo.findByUsername("taro"))
+                .thenReturn(Optional.of(user("taro", true)))
+                .thenReturn(Optional.of(user("taro", false)));
+        AppUserDetailsService service = new AppUserDetailsService(repo, bus, Duration.ZERO);
+
+        assertTrue(service.loadUserByUsername("taro").isEnabled());
+        assertFalse(service.loadUserByUsername("taro").isEnabled());
+        verify(repo, times(2)).findByUsername("taro");
+    }
+
+    @DisplayName("無効化通知（そのユーザー / 全件）が届いたら DB から取り直すこと")
+    @Test
+    void testInvalidatedByBus() {
+        when(repo.findByUsername("taro")).thenReturn(Optional.of(user("taro", true)));
+        AppUserDetailsService service = new AppUserDetailsService(repo, bus, Duration.ofMinutes(5));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(bus).subscribe(eq(CacheInvalidationBus.USERS), listener.capture());
+
+        service.loadUserByUsername("taro");
+        listener.getValue().accept("hanako");               // 別のユーザーの通知では捨てない
+        service.loadUserByUsername("taro");
+        verify(repo, times(1)).findByUsername("taro");
+
+        listener.getValue().accept("taro");
+        service.loadUserByUsername("taro");
+        verify(repo, times(2)).findByUsername("taro");
+
+        listener.getValue().accept(null);                   // 全件無効化
+        service.loadUserByUsername("taro");
+        verify(repo, times(3)).findByUsername("taro");
+    }
+
+    @DisplayName("パスワードの置き換えは保存して、そのユーザーの無効化を通知すること")
+    @Test
+    void testUpdatePasswordPublishes() {
+        AppUser stored = user("taro", true);
+        when(repo.findByUsername("taro")).thenReturn(Optional.of(stored));
+        AppUserDetailsService service = new AppUserDetailsService(repo, bus, Duration.ofMinutes(5));
+
+        UserDetails updated = service.updatePassword(service.loadUserByUsername("taro"), "$2a$12$newhash");
+
+        assertEquals("$2a$12$newhash", updated.getPassword());
+        assertEquals("$2a$12$newhash", stored.getPassword());
+        verify(repo).save(stored);
+        verify(bus).publish(CacheInvalidationBus.USERS, "taro");
+    }
+
+    @DisplayName("存在しないユーザーは UsernameNotFoundException になること")
+    @Test
+    void testNotFound() {
+        when(repo.findByUsername("nobody")).thenReturn(Optional.empty());
+        AppUserDetailsService service = new AppUserDetailsService(repo, bus, Duration.ofMinutes(5));
+
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("nobody"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.BookChange;
+import com.example.demo.repository.BookChangeRepository;
+import com.example.demo.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// 差分取得とコミット順のずれのテスト（H2 で 2 つのトランザクションを実際に交差させる）
+// ・先に seq を取ったトランザクションが後からコミットされても、その変更を取りこぼさないこと
+// ・トランザクションを自分で制御するため、テストメソッド自体はトランザクションの外で動かす
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookChangeFeedConcurrencyTest {
+
+    @Autowired
+    BookRepository repo;
+
+    @Autowired
+    BookChangeRepository changeRepo;
+
+    @Autowired
+    PlatformTransactionManager txManager;
+
+    @AfterEach
+    void tearDown() {
+        changeRepo.deleteAll();
+    }
+
+    @DisplayName("後からコミットされた小さい seq の変更を、トークンが追い越さないこと")
+    @Test
+    void testLateCommitIsNotSkipped() throws Exception {
+        BookService service = newService();
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        long since = changeRepo.findAll().stream().mapToLong(BookChange::getSeq).max().orElse(0);
+
+        // ① トランザクション A：seq を取ったところで止めておく（まだコミットしない）
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> a = CompletableFuture.supplyAsync(() -> tx.execute(status -> {
+            long seq = changeRepo.saveAndFlush(new BookChange(1L, BookChange.Type.CREATED)).getSeq();
+            inserted.countDown();
+            await(release);
+            return seq;
+        }));
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+
+        // ② トランザクション B：後から seq を取り、先にコミットする
+        long seqB = tx.execute(status ->
+                changeRepo.saveAndFlush(new BookChange(2L, BookChange.Type.CREATED)).getSeq());
+
+        // B は見えているが、A の seq（欠番）の手前で止まる
+        assertEquals(1, changeRepo.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(10)).size());
+        BookChangeFeed before = service.changesSince(since, 100);
+        assertEquals(since, before.nextToken());
+        assertTrue(before.entries().isEmpty());
+
+        // ③ A をコミットすると、A・B の両方が返る
+        release.countDown();
+        long seqA = a.get(5, TimeUnit.SECONDS);
+        assertTrue(seqA < seqB);
+
+        BookChangeFeed after = service.changesSince(before.nextToken(), 100);
+        assertEquals(seqB, after.nextToken());
+        assertEquals(List.of(1L, 2L), after.entries().stream().map(BookChangeFeed.Entry::bookId).toList());
+    }
+
+    // Repository だけ本物を使い、DbGuard は渡された処理をそのまま実行する
+    private BookService newService() {
+        DbGuard db = mock(DbGuard.class);
+        when(db.read(anyString(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        return new BookService(repo, changeRepo, mock(ApplicationEventPublisher.class),
+                mock(CacheInvalidationBus.class), mock(BookTiering.class), db, mock(CatalogSnapshots.class),
+                Duration.ofSeconds(30));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
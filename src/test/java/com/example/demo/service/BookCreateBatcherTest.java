@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// BookCreateBatcher の単体テスト
+// ・BookService はモックにして、まとめ方と失敗時の切り分けだけを確認する
+// ・max-delay を長め（200ms）にして、続けて積んだ作成が 1 つのバッチになるようにする
+class BookCreateBatcherTest {
+
+    private final AtomicLong ids = new AtomicLong();
+    private BookService service;
+    private BookCreateBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(BookService.class);
+        batcher = new BookCreateBatcher(service, new SimpleMeterRegistry(), true, 10, Duration.ofMillis(200), 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.shutdown();
+    }
+
+    @DisplayName("続けて届いた作成が 1 回の createAll にまとめられ、それぞれ採番済みの Book で完了すること")
+    @Test
+    void testGroupsConcurrentCreates() throws Exception {
+        when(service.createAll(anyList())).thenAnswer(inv -> inv.<List<Book>>getArgument(0).stream()
+                .map(this::saved).toList());
+
+        CompletableFuture<Book> a = batcher.submit(book("A"));
+        CompletableFuture<Book> b = batcher.submit(book("B"));
+        CompletableFuture<Book> c = batcher.submit(book("C"));
+
+        assertEquals("A", a.get(5, TimeUnit.SECONDS).getTitle());
+        assertEquals("B", b.get(5, TimeUnit.SECONDS).getTitle());
+        assertEquals("C", c.get(5, TimeUnit.SECONDS).getTitle());
+        assertNotNull(c.get().getId());
+        verify(service, times(1)).createAll(argThat(list -> list.size() == 3));
+        verify(service, never()).create(any());
+    }
+
+    @DisplayName("まとめた保存が失敗したら 1 件ずつやり直し、不正な 1 件だけが失敗すること")
+    @Test
+    void testIsolatesBadRow() throws Exception {
+        when(service.createAll(anyList())).thenThrow(new DataIntegrityViolationException("too long"));
+        when(service.create(any())).thenAnswer(inv -> {
+            Book b = inv.getArgument(0);
+            if (b.getTitle().equals("bad")) throw new DataIntegrityViolationException("too long");
+            return saved(b);
+        });
+
+        CompletableFuture<Book> ok1 = batcher.submit(book("ok1"));
+        CompletableFuture<Book> bad = batcher.submit(book("bad"));
+        CompletableFuture<Book> ok2 = batcher.submit(book("ok2"));
+
+        assertEquals("ok1", ok1.get(5, TimeUnit.SECONDS).getTitle());
+        assertEquals("ok2", ok2.get(5, TimeUnit.SECONDS).getTitle());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+    }
+
+    @DisplayName("DB が使えないときは 1 件ずつやり直さず、全件が 503 の例外で完了すること")
+    @Test
+    void testFailsWholeBatchWhenDatabaseUnavailable() {
+        when(service.createAll(anyList()))
+                .thenThrow(new DatabaseUnavailableException("circuit open", Duration.ofSeconds(5), null));
+
+        CompletableFuture<Book> a = batcher.submit(book("A"));
+        CompletableFuture<Book> b = batcher.submit(book("B"));
+
+        for (CompletableFuture<Book> f : List.of(a, b)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DatabaseUnavailableException.class, e.getCause());
+        }
+        verify(service, never()).create(any());
+    }
+
+    @DisplayName("保存中に Error が起きてもそのバッチだけが失敗し、次の作成は保存されること")
+    @Test
+    void testSurvivesError() throws Exception {
+        when(service.createAll(anyList()))
+                .thenThrow(new StackOverflowError())
+                .thenAnswer(inv -> inv.<List<Book>>getArgument(0).stream().map(this::saved).toList());
+
+        CompletableFuture<Book> failed = batcher.submit(book("A"));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, e.getCause());
+
+        // 専用スレッドが生きていれば、次のバッチは普通に保存される
+        assertEquals("B", batcher.submit(book("B")).get(5, TimeUnit.SECONDS).getTitle());
+    }
+
+    private Book saved(Book b) {
+        b.setId(ids.incrementAndGet());
+        return b;
+    }
+
+    private static Book book(String title) {
+        Book b = new Book();
+        b.setTitle(title);
+        b.setAuthor("著者");
+        b.setPrice(1000);
+        return b;
+    }
+}
@@ -1,15 +1,26 @@
 package com.example.demo.service;
 
 import com.example.demo.domain.Book;
+import com.example.demo.domain.BookChange;
+import com.example.demo.repository.BookChangeRepository;
 import com.example.demo.repository.BookRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,9 +34,29 @@ class BookServiceTest {
     @Mock
     private BookRepository repo;
 
-    // BookServiceの中にあるBookRepositoryフィールドへ
-    // 上で作ったモックを自動注入する
-    @InjectMocks
+    // 変更履歴のリポジトリとイベント発行もモック化する
+    @Mock
+    private BookChangeRepository changeRepo;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private CacheInvalidationBus cacheBus;
+
+    // アーカイブ済みの Book はない前提（hasArchived() は false）
+    @Mock
+    private BookTiering tiering;
+
+    // トランザクション・タイムアウト・遮断は行わず、渡された処理をそのまま実行する
+    @Mock
+    private DbGuard db;
+
+    // スナップショットは使わず、常に DB から読む
+    @Mock
+    private CatalogSnapshots snapshots;
+
+    // テスト対象（上で作ったモックを渡して setUp で組み立てる）
     private BookService service;
 
     // テストで使う共通のBookデータ
@@ -34,8 +65,12 @@ class BookServiceTest {
     // 各テストの前に実行される初期化処理
     @BeforeEach
     void setUp() {
-        // @Mockや@InjectMocksを有効化する
+        // @Mockを有効化し、モックを渡して BookService を作る
         MockitoAnnotations.openMocks(this);
+        service = new BookService(repo, changeRepo, events, cacheBus, tiering, db, snapshots, Duration.ofSeconds(30));
+        when(db.read(anyString(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        when(db.write(anyString(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        when(snapshots.serve(any(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
 
         // テスト用のBookエンティティを準備する
         sample = new Book();
@@ -89,4 +124,152 @@ class BookServiceTest {
         // 例外メッセージに "Book not found" が含まれているかチェック
         assertTrue(ex.getMessage().contains("Book not found"));
     }
+
+    // ---------------------------
+    // 【正常系】アーカイブ済みの Book はホット層へ戻してから更新する
+    // ---------------------------
+
+    @DisplayName("アーカイブ済みの Book を更新すると、ホット層へ戻してから更新されること")
+    @Test
+    void testUpdateArchivedBook() {
+        // 1 回目はホット層になく、戻した後の 2 回目で見つかる
+        when(repo.findById(1L)).thenReturn(Optional.empty(), Optional.of(sample));
+        when(tiering.restore(List.of(1L))).thenReturn(List.of(1L));
+        when(repo.saveAndFlush(sample)).thenReturn(sample);
+        when(changeRepo.save(any(BookChange.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Book patch = new Book();
+        patch.setPrice(2000);
+        assertEquals(2000, service.update(1L, patch).getPrice());
+        verify(tiering).restore(List.of(1L));
+    }
+
+    @DisplayName("ホット層にもコールド層にもない Book の更新・削除は Book not found になること")
+    @Test
+    void testWriteMissingBook() {
+        when(repo.findById(1L)).thenReturn(Optional.empty());
+        when(tiering.restore(List.of(1L))).thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> service.update(1L, new Book()));
+        assertThrows(IllegalArgumentException.class, () -> service.delete(1L));
+        verify(repo, never()).delete(any(Book.class));
+    }
+
+    // ---------------------------
+    // 【正常系】並び指定のない一覧は id 順
+    // ---------------------------
+
+    @DisplayName("並び指定のない一覧は id 順で読まれること（コールド層がある場合も同じ）")
+    @Test
+    void testListDefaultsToIdOrder() {
+        Pageable expected = PageRequest.of(2, 20, Sort.by("id"));
+        when(repo.findAll(expected)).thenReturn(new PageImpl<>(List.of(sample), expected, 41));
+
+        Page<Book> page = service.list(null, PageRequest.of(2, 20));
+        assertEquals(List.of(sample), page.getContent());
+
+        when(tiering.hasArchived()).thenReturn(true);
+        service.list(null, PageRequest.of(2, 20));
+        verify(tiering).list(null, expected);
+
+        // コールド層でも、並び指定なしは「新しい順」ではない
+        assertFalse(BookTiering.isNewestFirst(Sort.unsorted()));
+        assertTrue(BookTiering.isNewestFirst(BookTiering.NEWEST_FIRST));
+    }
+
+    // ---------------------------
+    // 【正常系】削除するとトゥームストーンが記録される
+    // ---------------------------
+
+    @DisplayName("削除時に DELETED の変更履歴が記録され、イベントが発行されること")
+    @Test
+    void testDeleteRecordsTombstone() {
+
+        when(repo.findById(1L)).thenReturn(Optional.of(sample));
+
+        // 変更履歴の save はそのまま seq を採番して返すようにする
+        when(changeRepo.save(any(BookChange.class))).thenAnswer(inv -> {
+            BookChange c = inv.getArgument(0);
+            c.setSeq(10L);
+            return c;
+        });
+
+        service.delete(1L);
+
+        verify(repo, times(1)).delete(sample);
+        verify(changeRepo, times(1)).save(argThat(c ->
+                c.getBookId() == 1L && c.getType() == BookChange.Type.DELETED));
+        verify(events, times(1)).publishEvent(argThat((Object e) ->
+                e instanceof BookChangedEvent ev
+                        && ev.seq() == 10L
+                        && ev.type() == BookChange.Type.DELETED
+                        && ev.book() == null
+                        && "JUnit入門".equals(ev.previous().getTitle())));
+
+        // 他ノードのキャッシュにも無効化が通知される
+        verify(cacheBus, times(1)).publish(CacheInvalidationBus.BOOKS, "1");
+    }
+
+    // ---------------------------
+    // 【正常系】差分取得は Book ごとに最新の変更へまとめる
+    // ---------------------------
+
+    @DisplayName("差分取得で同じBookの変更が最新1件にまとめられ、nextTokenが最後の変更番号になること")
+    @Test
+    void testChangesSince() {
+
+        BookChange created = new BookChange(1L, BookChange.Type.CREATED);
+        created.setSeq(5L);
+        BookChange updated = new BookChange(1L, BookChange.Type.UPDATED);
+        updated.setSeq(6L);
+        BookChange deleted = new BookChange(2L, BookChange.Type.DELETED);
+        deleted.setSeq(7L);
+
+        when(changeRepo.findBySeqGreaterThanOrderBySeqAsc(eq(4L), any()))
+                .thenReturn(List.of(created, updated, deleted));
+        when(repo.findAllById(List.of(1L))).thenReturn(List.of(sample));
+
+        BookChangeFeed feed = service.changesSince(4L, 100);
+
+        assertEquals(7L, feed.nextToken());
+        assertFalse(feed.hasMore());
+        assertEquals(2, feed.entries().size());
+
+        // Book 1 は UPDATED（最新）にまとめられ、Book 2 はトゥームストーン
+        assertEquals(BookChange.Type.UPDATED, feed.entries().get(0).type());
+        assertEquals("JUnit入門", feed.entries().get(0).book().getTitle());
+        assertEquals(BookChange.Type.DELETED, feed.entries().get(1).type());
+        assertNull(feed.entries().get(1).book());
+    }
+
+    // ---------------------------
+    // 【正常系】seq の欠番（未コミットかもしれない変更）の手前で止まる
+    // ---------------------------
+
+    @DisplayName("seq に最近の欠番があるときは欠番の手前までしか返さず、古い欠番は読み飛ばすこと")
+    @Test
+    void testChangesSinceStopsAtRecentGap() {
+
+        BookChange first = change(5L, LocalDateTime.now());
+        BookChange afterGap = change(7L, LocalDateTime.now());   // seq 6 はまだコミットされていないかもしれない
+        when(changeRepo.findBySeqGreaterThanOrderBySeqAsc(eq(4L), any())).thenReturn(List.of(first, afterGap));
+
+        BookChangeFeed feed = service.changesSince(4L, 100);
+        assertEquals(5L, feed.nextToken());
+        assertEquals(1, feed.entries().size());
+        assertFalse(feed.hasMore());
+
+        // 欠番の後ろの変更が十分古ければ、欠番はロールバックとみなして進む
+        BookChange oldAfterGap = change(7L, LocalDateTime.now().minusMinutes(5));
+        when(changeRepo.findBySeqGreaterThanOrderBySeqAsc(eq(5L), any())).thenReturn(List.of(oldAfterGap));
+
+        assertEquals(7L, service.changesSince(5L, 100).nextToken());
+    }
+
+    private static BookChange change(long seq, LocalDateTime changedAt) {
+        BookChange c = new BookChange(seq * 10, BookChange.Type.DELETED);
+        c.setSeq(seq);
+        c.setChangedAt(changedAt);
+        return c;
+    }
 }
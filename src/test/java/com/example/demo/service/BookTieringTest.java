@@ -0,0 +1,146 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import com.example.demo.repository.ArchivedBookRepository;
+import com.example.demo.repository.BookBulkUpdate;
+import com.example.demo.repository.BookChangeRepository;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.BookSearchCriteria;
+import com.example.demo.repository.CatalogBookRepository;
+import com.example.demo.repository.FacetCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+// BookTiering のテスト（H2 の book / book_archive を実際に使う）
+// ・アーカイブした後も、複合条件検索・ファセット・一括処理がコールド層の Book を含めて動くこと
+// ・hot-age を 0 にして、archive() の時点で保存済みの Book をすべてコールド層へ移す
+@DataJpaTest
+class BookTieringTest {
+
+    @Autowired
+    BookRepository repo;
+
+    @Autowired
+    ArchivedBookRepository archiveRepo;
+
+    @Autowired
+    CatalogBookRepository catalogRepo;
+
+    @Autowired
+    BookChangeRepository changeRepo;
+
+    @Autowired
+    PlatformTransactionManager txManager;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    EntityManager em;
+
+    private BookTiering tiering;
+    private Book oldA;
+    private Book oldB;
+
+    @BeforeEach
+    void setUp() {
+        tiering = new BookTiering(repo, archiveRepo, catalogRepo, new ArchivePartitions(dataSource), txManager,
+                true, Duration.ZERO, 1000, Duration.ofMinutes(1));
+
+        // Taro の 2 冊をコールド層へ移し、その後に Taro と Hanako の 1 冊ずつをホット層に作る
+        oldA = repo.saveAndFlush(book("Java入門", "Taro", 1000));
+        oldB = repo.saveAndFlush(book("Java応用", "Taro", 2000));
+        tiering.archive();
+        repo.saveAndFlush(book("Java新版", "Taro", 3000));
+        repo.saveAndFlush(book("Spring入門", "Hanako", 1500));
+
+        assertEquals(2, archiveRepo.count());
+        assertEquals(2, repo.count());
+    }
+
+    @DisplayName("アーカイブ済みの Book も複合条件検索でヒットし、件数とファセットにも含まれること")
+    @Test
+    void testSearchIncludesArchived() {
+        BookSearchCriteria taro = new BookSearchCriteria("java", "Taro", null, null, null, null, null, null);
+
+        BookSearchResult r = tiering.search(taro, PageRequest.of(0, 10, Sort.by("price")), true, 1000);
+
+        assertEquals(3, r.page().getTotalElements());
+        assertEquals(List.of("Java入門", "Java応用", "Java新版"),
+                r.page().getContent().stream().map(Book::getTitle).toList());
+        assertEquals(List.of(new FacetCount("Taro", 3)), r.authors());
+        assertEquals(List.of(new FacetCount("1000", 1), new FacetCount("2000", 1), new FacetCount("3000", 1)),
+                r.priceBuckets());
+        assertEquals(3, tiering.count(taro));
+    }
+
+    @DisplayName("一括更新はアーカイブ済みの Book をホット層へ戻してから更新すること")
+    @Test
+    void testBulkUpdateIncludesArchived() {
+        DbGuard db = new DbGuard(txManager, em, new MockEnvironment(), new SimpleMeterRegistry(),
+                50, 20, 0.5, Duration.ofSeconds(2), 0.8, Duration.ofSeconds(10), 3);
+        BookBulkService bulk = new BookBulkService(repo, changeRepo, mock(ApplicationEventPublisher.class),
+                mock(CacheInvalidationBus.class), tiering, db, 2);
+
+        long n = bulk.update(new BookSearchCriteria(null, "Taro", null, null, null, null, null, null),
+                new BookBulkUpdate(10, null, null));
+
+        assertEquals(3, n);
+        assertEquals(0, archiveRepo.count());
+        assertEquals(1100, repo.findById(oldA.getId()).orElseThrow().getPrice());
+        assertEquals(2200, repo.findById(oldB.getId()).orElseThrow().getPrice());
+        assertEquals(3, changeRepo.count());
+    }
+
+    @DisplayName("新しい順の一覧は層をまたいでも正しい順・件数になり、戻した古い Book があっても崩れないこと")
+    @Test
+    void testListNewestFirstAcrossTiers() {
+        List<String> expected = List.of("Spring入門", "Java新版", "Java応用", "Java入門");
+
+        // ホット層の 2 冊がすべてコールド層より新しい → ホット層 → コールド層の順につなげる
+        assertEquals(expected, newestFirst());
+
+        // 古い方の Book をホット層へ戻すと境目が崩れる → UNION ALL で読んでも同じ順・同じ件数
+        tiering.restore(List.of(oldA.getId()));
+        assertEquals(3, repo.count());
+        assertEquals(expected, newestFirst());
+    }
+
+    // 新しい順に 3 件ずつ 2 ページ読んだタイトル（どのページも総件数は 4）
+    private List<String> newestFirst() {
+        List<String> titles = new ArrayList<>();
+        for (int page = 0; page < 2; page++) {
+            Page<Book> p = tiering.list(null, PageRequest.of(page, 3, BookTiering.NEWEST_FIRST));
+            assertEquals(4, p.getTotalElements());
+            p.getContent().forEach(b -> titles.add(b.getTitle()));
+        }
+        return titles;
+    }
+
+    private static Book book(String title, String author, Integer price) {
+        Book b = new Book();
+        b.setTitle(title);
+        b.setAuthor(author);
+        b.setPrice(price);
+        return b;
+    }
+}
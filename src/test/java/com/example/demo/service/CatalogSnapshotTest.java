@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// CatalogSnapshotWriter / CatalogSnapshot の単体テスト
+// ・ファイルに書いてマップし直し、ID 指定・並び順・検索・ページングが DB と同じ結果になることを確認する
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @DisplayName("書き出したスナップショットから ID 指定で Book を取得できること（null の項目も保たれる）")
+    @Test
+    void testGetById() throws Exception {
+        CatalogSnapshot s = write(List.of(
+                book(1, "Java", "Taro", 1800, LocalDateTime.of(2024, 1, 1, 9, 0, 0, 123_456_000)),
+                book(5, "Spring", null, null, LocalDateTime.of(2024, 1, 2, 9, 0))));
+
+        assertEquals(2, s.size());
+        Book b = s.get(1).orElseThrow();
+        assertEquals("Java", b.getTitle());
+        assertEquals("Taro", b.getAuthor());
+        assertEquals(1800, b.getPrice());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 9, 0, 0, 123_456_000), b.getCreatedAt());
+        assertNull(b.getUpdatedAt());
+
+        Book n = s.get(5).orElseThrow();
+        assertNull(n.getAuthor());
+        assertNull(n.getPrice());
+
+        assertTrue(s.get(3).isEmpty());
+    }
+
+    @DisplayName("並び順（新しい順・価格順）とページングがスナップショットだけで処理されること")
+    @Test
+    void testListOrders() throws Exception {
+        CatalogSnapshot s = write(List.of(
+                book(1, "C", "A", 300, LocalDateTime.of(2024, 1, 3, 0, 0)),
+                book(2, "A", "A", 100, LocalDateTime.of(2024, 1, 1, 0, 0)),
+                book(3, "B", "A", 200, LocalDateTime.of(2024, 1, 2, 0, 0))));
+
+        Page<Book> newest = s.list(null, PageRequest.of(0, 2, BookTiering.NEWEST_FIRST)).orElseThrow();
+        assertEquals(List.of(1L, 3L), ids(newest));
+        assertEquals(3, newest.getTotalElements());
+
+        Page<Book> second = s.list(null, PageRequest.of(1, 2, BookTiering.NEWEST_FIRST)).orElseThrow();
+        assertEquals(List.of(2L), ids(second));
+
+        Page<Book> byPrice = s.list("", PageRequest.of(0, 10, Sort.by("price"))).orElseThrow();
+        assertEquals(List.of(2L, 3L, 1L), ids(byPrice));
+
+        // 並び順領域にない並びはスナップショットでは答えない（DB へ回す）
+        assertTrue(s.list(null, PageRequest.of(0, 10, Sort.by("author"))).isEmpty());
+    }
+
+    @DisplayName("タイトルの部分一致（大文字小文字を区別しない）で絞り込めること")
+    @Test
+    void testListByTitle() throws Exception {
+        CatalogSnapshot s = write(List.of(
+                book(1, "Spring Boot", "A", 100, LocalDateTime.of(2024, 1, 1, 0, 0)),
+                book(2, "Java", "A", 100, LocalDateTime.of(2024, 1, 2, 0, 0)),
+                book(3, "spring data", "A", 100, LocalDateTime.of(2024, 1, 3, 0, 0))));
+
+        Page<Book> page = s.list("SPRING", PageRequest.of(0, 1, Sort.by("id"))).orElseThrow();
+        assertEquals(List.of(1L), ids(page));
+        assertEquals(2, page.getTotalElements());
+    }
+
+    // DB の代わりに、並び順ごとの id 列をここで作って渡す
+    private CatalogSnapshot write(List<Book> books) throws Exception {
+        Path file = dir.resolve("catalog.snapshot");
+        try (CatalogSnapshotWriter w = new CatalogSnapshotWriter(dir)) {
+            for (Book b : books) w.add(b);
+            w.order(CatalogSnapshot.ORDER_CREATED_AT, sortedIds(books, "createdAt"));
+            w.order(CatalogSnapshot.ORDER_TITLE, sortedIds(books, "title"));
+            w.order(CatalogSnapshot.ORDER_PRICE, sortedIds(books, "price"));
+            w.finish(file, Instant.now());
+        }
+        return CatalogSnapshot.open(file);
+    }
+
+    private static Iterator<Long> sortedIds(List<Book> books, String property) {
+        Comparator<Book> c = switch (property) {
+            case "createdAt" -> Comparator.comparing(Book::getCreatedAt);
+            case "title" -> Comparator.comparing(Book::getTitle);
+            default -> Comparator.comparing(Book::getPrice,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+        };
+        return books.stream().sorted(c.thenComparing(Book::getId)).map(Book::getId).iterator();
+    }
+
+    private static List<Long> ids(Page<Book> page) {
+        return page.getContent().stream().map(Book::getId).toList();
+    }
+
+    private static Book book(long id, String title, String author, Integer price, LocalDateTime createdAt) {
+        Book b = new Book();
+        b.setId(id);
+        b.setTitle(title);
+        b.setAuthor(author);
+        b.setPrice(price);
+        b.setCreatedAt(createdAt);
+        return b;
+    }
+}
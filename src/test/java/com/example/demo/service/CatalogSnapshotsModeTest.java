@@ -0,0 +1,33 @@
+package com.example.demo.service;
+
+import com.example.demo.service.CatalogSnapshots.Mode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// app.snapshot.mode の読み取り（CatalogSnapshots.Mode.of）のテスト
+class CatalogSnapshotsModeTest {
+
+    @DisplayName("off / fallback / primary を大文字・小文字を区別せずに読めること")
+    @Test
+    void testOf() {
+        assertEquals(Mode.OFF, Mode.of("off"));
+        assertEquals(Mode.FALLBACK, Mode.of(" Fallback "));
+        assertEquals(Mode.PRIMARY, Mode.of("PRIMARY"));
+    }
+
+    @DisplayName("引用符なしの off が YAML で false になった値も OFF として扱うこと")
+    @Test
+    void testYamlBooleanOff() {
+        assertEquals(Mode.OFF, Mode.of("false"));
+    }
+
+    @DisplayName("不正な値は指定できる値を示す IllegalArgumentException になること")
+    @Test
+    void testInvalid() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> Mode.of("true"));
+        assertTrue(ex.getMessage().contains("app.snapshot.mode 'true'"));
+        assertTrue(ex.getMessage().contains("off, fallback, primary"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import com.example.demo.domain.BookChange;
+import com.example.demo.repository.CatalogBookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// CatalogStatistics の単体テスト
+// ・イベントによる差分更新と、DB との突き合わせ（reconcile）を確認する
+class CatalogStatisticsTest {
+
+    private CatalogBookRepository repo;
+    private CatalogStatistics stats;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(CatalogBookRepository.class);
+        stats = new CatalogStatistics(repo, 1000); // ヒストグラムは 1000 円刻み
+    }
+
+    private static Book book(long id, String author, Integer price) {
+        Book b = new Book();
+        b.setId(id);
+        b.setTitle("title" + id);
+        b.setAuthor(author);
+        b.setPrice(price);
+        return b;
+    }
+
+    @DisplayName("作成・更新・削除のイベントで統計値が差分更新されること")
+    @Test
+    void testIncrementalUpdate() {
+
+        // ---- 3 冊作成 ----
+        stats.onChange(new BookChangedEvent(1, BookChange.Type.CREATED, 1L, book(1, "Taro", 1500), null));
+        stats.onChange(new BookChangedEvent(2, BookChange.Type.CREATED, 2L, book(2, "Taro", 2500), null));
+        stats.onChange(new BookChangedEvent(3, BookChange.Type.CREATED, 3L, book(3, "Hanako", null), null));
+
+        CatalogStatistics.Summary s = stats.summary(10);
+        assertEquals(3, s.totalBooks());
+        assertEquals(2, s.pricedBooks());
+        assertEquals(1500, s.minPrice());
+        assertEquals(2500, s.maxPrice());
+        assertEquals(2000.0, s.avgPrice());
+        assertEquals(new CatalogStatistics.AuthorCount("Taro", 2), s.topAuthors().get(0));
+
+        // ---- 価格 2500 → 500 に更新（変更前を引いて変更後を足す） ----
+        stats.onChange(new BookChangedEvent(4, BookChange.Type.UPDATED, 2L,
+                book(2, "Taro", 500), book(2, "Taro", 2500)));
+
+        s = stats.summary(10);
+        assertEquals(3, s.totalBooks());
+        assertEquals(500, s.minPrice());
+        assertEquals(1500, s.maxPrice());
+        assertEquals(List.of(
+                new CatalogStatistics.PriceBucket(0, 1000, 1),
+                new CatalogStatistics.PriceBucket(1000, 2000, 1)), s.priceHistogram());
+
+        // ---- 1 冊削除 ----
+        stats.onChange(new BookChangedEvent(5, BookChange.Type.DELETED, 1L, null, book(1, "Taro", 1500)));
+
+        s = stats.summary(10);
+        assertEquals(2, s.totalBooks());
+        assertEquals(500, s.maxPrice());
+        assertEquals(1, s.topAuthors().get(0).count());
+    }
+
+    @DisplayName("一括処理のイベントで、著者・価格ごとの変更前を引いて変更後を足すこと")
+    @Test
+    void testBulkChange() {
+        stats.onChange(new BookChangedEvent(1, BookChange.Type.CREATED, 1L, book(1, "Taro", 1000), null));
+        stats.onChange(new BookChangedEvent(2, BookChange.Type.CREATED, 2L, book(2, "Taro", 1000), null));
+        stats.onChange(new BookChangedEvent(3, BookChange.Type.CREATED, 3L, book(3, "Hanako", 2000), null));
+
+        // Taro の 2 冊を 1 割値上げ
+        stats.onBulkChange(new BookBulkChangedEvent(BookChange.Type.UPDATED, List.of(1L, 2L),
+                List.of(new BookBulkChangedEvent.Group("Taro", 1000, 2)),
+                List.of(new BookBulkChangedEvent.Group("Taro", 1100, 2))));
+
+        CatalogStatistics.Summary s = stats.summary(10);
+        assertEquals(3, s.totalBooks());
+        assertEquals(1100, s.minPrice());
+        assertEquals((1100 * 2 + 2000) / 3.0, s.avgPrice());
+        assertEquals(new CatalogStatistics.AuthorCount("Taro", 2), s.topAuthors().get(0));
+
+        // Hanako の 1 冊を削除
+        stats.onBulkChange(new BookBulkChangedEvent(BookChange.Type.DELETED, List.of(3L),
+                List.of(new BookBulkChangedEvent.Group("Hanako", 2000, 1)), List.of()));
+
+        s = stats.summary(10);
+        assertEquals(2, s.totalBooks());
+        assertEquals(1100, s.maxPrice());
+        assertEquals(List.of(new CatalogStatistics.AuthorCount("Taro", 2)), s.topAuthors());
+    }
+
+    @DisplayName("著者ランキングが冊数の増減に合わせて並び替わり、0 冊になった著者は消えること")
+    @Test
+    void testAuthorRanking() {
+        stats.onChange(new BookChangedEvent(1, BookChange.Type.CREATED, 1L, book(1, "Taro", 1000), null));
+        stats.onChange(new BookChangedEvent(2, BookChange.Type.CREATED, 2L, book(2, "Taro", 1000), null));
+        stats.onChange(new BookChangedEvent(3, BookChange.Type.CREATED, 3L, book(3, "Hanako", 1000), null));
+        stats.onChange(new BookChangedEvent(4, BookChange.Type.CREATED, 4L, book(4, "Jiro", 1000), null));
+
+        assertEquals(List.of(
+                new CatalogStatistics.AuthorCount("Taro", 2),
+                new CatalogStatistics.AuthorCount("Hanako", 1)), stats.summary(2).topAuthors());
+
+        // Taro の 1 冊を Jiro に付け替える → Jiro が先頭、同数の Hanako と Taro は名前順
+        stats.onChange(new BookChangedEvent(5, BookChange.Type.UPDATED, 2L,
+                book(2, "Jiro", 1000), book(2, "Taro", 1000)));
+        assertEquals(List.of(
+                new CatalogStatistics.AuthorCount("Jiro", 2),
+                new CatalogStatistics.AuthorCount("Hanako", 1),
+                new CatalogStatistics.AuthorCount("Taro", 1)), stats.summary(10).topAuthors());
+
+        // Hanako の 1 冊を削除 → ランキングから消える
+        stats.onChange(new BookChangedEvent(6, BookChange.Type.DELETED, 3L, null, book(3, "Hanako", 1000)));
+        assertEquals(List.of(
+                new CatalogStatistics.AuthorCount("Jiro", 2),
+                new CatalogStatistics.AuthorCount("Taro", 1)), stats.summary(10).topAuthors());
+    }
+
+    @DisplayName("reconcile で DB の GROUP BY 結果に置き換わること")
+    @Test
+    void testReconcile() {
+
+        when(repo.countByPrice()).thenReturn(List.of(
+                new Object[]{1200, 3L},
+                new Object[]{null, 1L}));
+        when(repo.countByAuthor()).thenReturn(List.<Object[]>of(
+                new Object[]{"Taro", 4L}));
+
+        stats.reconcile();
+
+        CatalogStatistics.Summary s = stats.summary(10);
+        assertEquals(4, s.totalBooks());
+        assertEquals(3, s.pricedBooks());
+        assertEquals(1200.0, s.avgPrice());
+        assertNotNull(s.reconciledAt());
+        assertEquals(List.of(new CatalogStatistics.AuthorCount("Taro", 4)), s.topAuthors());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// CircuitBreaker の単体テスト
+// ・時計を差し替えて、OPEN → HALF_OPEN → CLOSED / OPEN の遷移を確認する
+class CircuitBreakerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        // 直近 10 回・最低 4 回で判定、失敗率 50%、500ms 以上は低速、OPEN は 1 秒、試験は 2 回
+        breaker = new CircuitBreaker(10, 4, 0.5, 0.8, 500 * MS, 1000 * MS, 2,
+                now::get, (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    @DisplayName("失敗率がしきい値を超えると OPEN になり、一定時間は呼び出しを断ること")
+    @Test
+    void testOpensOnFailures() {
+        for (int i = 0; i < 2; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onResult(false, 10 * MS);
+        }
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(true, 10 * MS);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state()); // 3 回ではまだ判定しない
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(true, 10 * MS);                            // 4 回中 2 回失敗 = 50%
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1000 * MS, breaker.remainingOpenNanos());
+    }
+
+    @DisplayName("OPEN の時間が過ぎると試験的に通し、成功すれば CLOSED、失敗すれば OPEN に戻ること")
+    @Test
+    void testHalfOpenProbe() {
+        openBreaker();
+
+        // ---- 1 秒後：2 回だけ通す（3 回目は断る） ----
+        now.addAndGet(1000 * MS);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        // ---- 試験の 1 回目が低速 → OPEN に戻る ----
+        breaker.onResult(false, 600 * MS);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        // ---- さらに 1 秒後：2 回とも成功 → CLOSED ----
+        now.addAndGet(1000 * MS);
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(false, 10 * MS);
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(false, 10 * MS);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN",
+                "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquire();
+            breaker.onResult(true, 10 * MS);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// DbGuard の単体テスト（トランザクションマネージャ・EntityManager はモック）
+// ・1 回の失敗で遮断されるよう、判定に必要な最低回数を 1 にしている
+class DbGuardTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final Session session = mock(Session.class);
+    private DbGuard db;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        EntityManager em = mock(EntityManager.class);
+        when(em.unwrap(Session.class)).thenReturn(session);
+
+        db = new DbGuard(txManager, em, new MockEnvironment(), meters,
+                10, 1, 0.5, Duration.ofSeconds(2), 0.8, Duration.ofMinutes(1), 1);
+    }
+
+    private long calls(String outcome) {
+        return meters.get("db.calls").tag("outcome", outcome).timer().count();
+    }
+
+    @DisplayName("DB の不調による例外は DatabaseUnavailableException に包まれ、遮断の判定に数えられること")
+    @Test
+    void testDatabaseFailure() {
+        DatabaseUnavailableException ex = assertThrows(DatabaseUnavailableException.class,
+                () -> db.read("get", () -> {
+                    throw new DataAccessResourceFailureException("connection refused");
+                }));
+        assertInstanceOf(DataAccessResourceFailureException.class, ex.getCause());
+        assertEquals(1, calls("failure"));
+
+        // 失敗率 100% で OPEN になり、次の呼び出しは DB に行かずに断られる（Retry-After 付き）
+        DatabaseUnavailableException rejected = assertThrows(DatabaseUnavailableException.class,
+                () -> db.read("get", () -> "not called"));
+        assertNotNull(rejected.getRetryAfter());
+        assertEquals(1, calls("rejected"));
+    }
+
+    @DisplayName("「見つからない」などの業務上の例外はそのまま投げ直され、成功として数えられること")
+    @Test
+    void testBusinessExceptionCountsAsSuccess() {
+        assertThrows(IllegalArgumentException.class, () -> db.read("get", () -> {
+            throw new IllegalArgumentException("Book not found: 1");
+        }));
+        assertThrows(IllegalStateException.class, () -> db.write("update", () -> {
+            throw new IllegalStateException("conflict");
+        }));
+        assertEquals(2, calls("success"));
+
+        // 遮断されていない
+        assertEquals("ok", db.read("get", () -> "ok"));
+    }
+
+    @DisplayName("キャンセルされた呼び出しは例外をそのまま投げ、遮断の判定には数えないこと")
+    @Test
+    void testCancelledCallIsIgnored() {
+        DbGuard.Cancellation cancellation = new DbGuard.Cancellation();
+
+        // 実行中にキャンセル → ドライバがタイムアウト系の例外を投げた想定
+        QueryTimeoutException ex = assertThrows(QueryTimeoutException.class,
+                () -> db.withCancellation(cancellation, () -> db.read("list", () -> {
+                    cancellation.cancel();
+                    throw new QueryTimeoutException("canceling statement due to user request");
+                })));
+        assertEquals("canceling statement due to user request", ex.getMessage());
+        verify(session).cancelQuery();
+        assertEquals(1, calls("cancelled"));
+
+        // 失敗として数えていれば OPEN になっているはず
+        assertEquals("ok", db.read("list", () -> "ok"));
+    }
+}
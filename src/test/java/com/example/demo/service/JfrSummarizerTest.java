@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// JfrSummarizer の単体テスト
+// ・実際に JFR で DbCallEvent を記録してダンプし、操作名ごとに集計されることを確認する
+class JfrSummarizerTest {
+
+    @DisplayName("アプリ独自イベントが操作名ごとに件数・所要時間つきで集計されること")
+    @Test
+    void testSummarizesAppEvents(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("test.jfr");
+        try (Recording r = new Recording()) {
+            r.enable(DbCallEvent.class);
+            r.start();
+            commit("get", 3);
+            commit("get", 3);
+            commit("list", 1);
+            r.stop();
+            r.dump(file);
+        }
+
+        JfrSummary summary = new JfrSummarizer().summarize(file, 10);
+
+        assertTrue(summary.eventCount() >= 3);
+        JfrSummary.EventStats get = stats(summary, "DbCall get");
+        assertEquals(2, get.count());
+        assertTrue(get.maxMillis() >= get.avgMillis());
+        assertTrue(get.avgMillis() >= 3);
+        assertEquals(1, stats(summary, "DbCall list").count());
+    }
+
+    private static void commit(String operation, long sleepMillis) throws InterruptedException {
+        DbCallEvent e = new DbCallEvent();
+        e.begin();
+        Thread.sleep(sleepMillis);
+        e.end();
+        e.operation = operation;
+        e.readOnly = true;
+        e.outcome = "success";
+        e.commit();
+    }
+
+    private static JfrSummary.EventStats stats(JfrSummary summary, String name) {
+        return summary.appEvents().stream()
+                .filter(s -> s.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no stats for " + name + ": " + summary.appEvents()));
+    }
+}
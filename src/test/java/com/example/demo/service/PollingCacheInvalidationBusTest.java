@@ -0,0 +1,154 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Book;
+import com.example.demo.domain.CacheInvalidation;
+import com.example.demo.repository.CacheInvalidationRepository;
+import com.example.demo.web.BookResponseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PollingCacheInvalidationBus のテスト（H2 の cache_invalidation テーブルを実際に使う）
+// ・publish → poll で、各通知がちょうど 1 回だけ届くこと
+// ・後からコミットされた小さい ID の通知を取りこぼさないこと
+// ・トランザクションを自分で制御するため、テストメソッド自体はトランザクションの外で動かす
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PollingCacheInvalidationBusTest {
+
+    @Autowired
+    CacheInvalidationRepository repo;
+
+    @Autowired
+    PlatformTransactionManager txManager;
+
+    private PollingCacheInvalidationBus bus;
+
+    @AfterEach
+    void tearDown() {
+        bus.close();
+        repo.deleteAll();
+    }
+
+    @DisplayName("publish した通知が poll で 1 回だけ届き、BookResponseCache のエントリが捨てられること")
+    @Test
+    void testDeliversOnceAndEvictsResponseCache() {
+        bus = newBus(Duration.ofSeconds(30));
+        List<String> received = subscribe(bus);
+        BookResponseCache cache = new BookResponseCache(Jackson2ObjectMapperBuilder.json().build(), bus, 1024 * 1024);
+
+        Book b = new Book();
+        b.setId(1L);
+        b.setTitle("Effective Java");
+        b.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        cache.bytes(b, MediaType.APPLICATION_JSON);
+        assertTrue(cache.size() > 0);
+
+        bus.publish(CacheInvalidationBus.BOOKS, "1");
+        bus.poll();
+        assertEquals(List.of("1"), received);
+        assertEquals(0, cache.size());
+
+        // 何度 poll しても同じ通知は届かない
+        bus.poll();
+        bus.poll();
+        assertEquals(List.of("1"), received);
+    }
+
+    @DisplayName("後からコミットされた小さい ID の通知も 1 回だけ届くこと")
+    @Test
+    void testLateCommitIsDeliveredOnce() throws Exception {
+        bus = newBus(Duration.ofSeconds(30));
+        List<String> received = subscribe(bus);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+
+        // ① トランザクション A：ID を取ったところで止めておく（まだコミットしない）
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> a = CompletableFuture.supplyAsync(() -> tx.execute(status -> {
+            long id = repo.saveAndFlush(new CacheInvalidation(CacheInvalidationBus.BOOKS, "a")).getId();
+            inserted.countDown();
+            await(release);
+            return id;
+        }));
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+
+        // ② B は後から ID を取り、先にコミットする → B だけ届き、watermark は A の手前で止まる
+        long idB = repo.save(new CacheInvalidation(CacheInvalidationBus.BOOKS, "b")).getId();
+        bus.poll();
+        assertEquals(List.of("b"), received);
+        long idA = idB - 1;
+        assertEquals(idA - 1, bus.watermark());
+
+        // ③ A をコミットすると A だけが届き、watermark は B まで進む
+        release.countDown();
+        assertEquals(idA, a.get(5, TimeUnit.SECONDS));
+        bus.poll();
+        bus.poll();
+        assertEquals(List.of("b", "a"), received);
+        assertEquals(idB, bus.watermark());
+    }
+
+    @DisplayName("ロールバックで空いた ID は in-flight-lag を過ぎると飛ばされること")
+    @Test
+    void testRolledBackGapIsSkipped() {
+        bus = newBus(Duration.ZERO);
+        List<String> received = subscribe(bus);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+
+        // ID を 1 つ消費してロールバック
+        tx.executeWithoutResult(status -> {
+            repo.saveAndFlush(new CacheInvalidation(CacheInvalidationBus.BOOKS, "rolled-back"));
+            status.setRollbackOnly();
+        });
+        long id = repo.save(new CacheInvalidation(CacheInvalidationBus.BOOKS, "1")).getId();
+
+        bus.poll();
+        assertEquals(List.of("1"), received);
+        assertEquals(id, bus.watermark());
+    }
+
+    // poll は手で呼ぶので、スケジュールされた読み取りは走らない間隔にしておく
+    // 読み始め位置（最大 ID）を決めるため、購読者のいないキャッシュ名の行を 1 件入れてから start する
+    // （前のテストの行を消した後でも、以降の ID が watermark から連続するように）
+    private PollingCacheInvalidationBus newBus(Duration inFlightLag) {
+        repo.save(new CacheInvalidation("test", "start"));
+        PollingCacheInvalidationBus b = new PollingCacheInvalidationBus(repo, Duration.ofHours(1),
+                Duration.ofMinutes(10), inFlightLag);
+        b.start();
+        return b;
+    }
+
+    private static List<String> subscribe(CacheInvalidationBus bus) {
+        List<String> received = new CopyOnWriteArrayList<>();
+        bus.subscribe(CacheInvalidationBus.BOOKS, received::add);
+        return received;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
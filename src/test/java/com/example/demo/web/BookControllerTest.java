@@ -1,19 +1,32 @@
 package com.example.demo.web;
 
 import com.example.demo.domain.Book;
+import com.example.demo.service.BookBulkService;
+import com.example.demo.service.BookCreateBatcher;
 import com.example.demo.service.BookService;
+import com.example.demo.service.CatalogStatistics;
+import com.example.demo.service.DatabaseUnavailableException;
+import com.example.demo.service.DbGuard;
 import com.example.demo.web.dto.BookRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -27,6 +40,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 // ・Service や Repository などはロードしない
 // ・Controllerの動作とHTTPレスポンスのテストに特化
 @WebMvcTest(BookController.class)
+@Import(CancellableQueries.class) // 読み取り系の非同期実行ヘルパーは本物を使う
 class BookControllerTest {
 
     // MockMvc は Spring MVC を模した「疑似HTTPクライアント」
@@ -40,6 +54,35 @@ class BookControllerTest {
     @MockBean
     private BookService service;
 
+    // SSE 配信コンポーネントも Controller が依存しているのでモックにしておく
+    @MockBean
+    private BookChangeStream changeStream;
+
+    @MockBean
+    private CatalogStatistics statistics;
+
+    @MockBean
+    private BookResponseCache responseCache;
+
+    @MockBean
+    private BookBulkService bulkService;
+
+    // キャンセルの仕組みは通さず、渡された処理をそのまま実行する
+    @MockBean
+    private DbGuard db;
+
+    // 既定では isEnabled() = false（まとめない）。まとめる場合も submit はその場で service.create を呼ぶ
+    @MockBean
+    private BookCreateBatcher createBatcher;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(db.withCancellation(Mockito.any(), Mockito.any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        Mockito.when(createBatcher.submit(Mockito.any()))
+                .thenAnswer(inv -> CompletableFuture.completedFuture(service.create(inv.getArgument(0))));
+    }
+
     // JSON変換用 (Java ⇄ JSON)
     // ・MockMvc でPOSTする際に JSON を作る必要がある
     @Autowired
@@ -68,12 +111,48 @@ class BookControllerTest {
         Mockito.when(service.list(Mockito.any(), Mockito.any())).thenReturn(page);
 
         // ---- ④ MockMvcでGETリクエストを実行 ----
-        mockMvc.perform(get("/api/books"))
+        // 読み取り系は非同期で実行されるので、開始を確認してから結果を取り出す
+        MvcResult started = mockMvc.perform(get("/api/books"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk()) // ステータスコード200
                 // JSONの中身を検証 → $.content[0].title が "Effective Java" か？
                 .andExpect(jsonPath("$.content[0].title").value("Effective Java"));
     }
 
+    // --------------------------------------------------------------
+    // GET /api/books のテスト（DB が使えない・混雑）
+    // --------------------------------------------------------------
+    @Test
+    @DisplayName("DB が使えないときは 503 と Retry-After が返ること")
+    void testGetBooks_DatabaseUnavailable() throws Exception {
+
+        // ---- ① DB が遮断中（あと 7 秒） ----
+        Mockito.when(service.list(Mockito.any(), Mockito.any()))
+                .thenThrow(new DatabaseUnavailableException("Database is unavailable (circuit open)",
+                        Duration.ofSeconds(7), null));
+
+        MvcResult started = mockMvc.perform(get("/api/books"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+
+        // ---- ② 実行待ちがあふれた（CancellableQueries のキューが満杯） ----
+        Mockito.reset(service);
+        Mockito.when(service.list(Mockito.any(), Mockito.any()))
+                .thenThrow(new TaskRejectedException("queue full"));
+
+        started = mockMvc.perform(get("/api/books"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
     // --------------------------------------------------------------
     // POST /api/books のテスト（新規登録）
     // --------------------------------------------------------------
@@ -96,12 +175,37 @@ class BookControllerTest {
         String json = objectMapper.writeValueAsString(newBook);
 
         // ---- ④ POSTリクエストを実行 ----
+        // まとめて保存しない設定（既定）なので、非同期にならずにそのまま返る
         mockMvc.perform(post("/api/books")
                         .contentType(MediaType.APPLICATION_JSON) // JSONを送る宣言
                         .content(json))                         // ボディ部分にJSONを渡す
+                .andExpect(request().asyncNotStarted())
                 .andExpect(status().isOk())                    // ステータス200
                 .andExpect(jsonPath("$.title").value("JUnit入門")) // JSON結果の検証
                 .andExpect(jsonPath("$.price").value(1800));
+        Mockito.verify(createBatcher, Mockito.never()).submit(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("作成をまとめる設定のときは、POST /api/books が非同期で応答すること")
+    void testCreateBook_Batched() throws Exception {
+        Book newBook = new Book();
+        newBook.setId(3L);
+        newBook.setTitle("JUnit実践");
+        newBook.setAuthor("山田太郎");
+        newBook.setPrice(2400);
+        Mockito.when(service.create(Mockito.any())).thenReturn(newBook);
+        Mockito.when(createBatcher.isEnabled()).thenReturn(true);
+
+        // CompletableFuture で返るので、非同期の開始を確認してから結果を取り出す
+        MvcResult started = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newBook)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("JUnit実践"));
     }
 
     // --------------------------------------------------------------
@@ -140,4 +244,35 @@ class BookControllerTest {
         // ----------------------------------------------------------
     }
 
+    // --------------------------------------------------------------
+    // POST /api/books/bulk/update・/bulk/delete のテスト（一括処理）
+    // --------------------------------------------------------------
+    @Test
+    @DisplayName("一括更新は処理件数を返し、条件なしの一括削除は 400 Bad Request になること")
+    void testBulkUpdateAndDelete() throws Exception {
+
+        // ---- ① 著者 Taro の本を 1 割値上げ → 3 件更新された ----
+        Mockito.when(bulkService.update(Mockito.any(), Mockito.any())).thenReturn(3L);
+
+        mockMvc.perform(post("/api/books/bulk/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"author\":\"Taro\"},\"pricePercent\":10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(3));
+
+        // ---- ② 条件なしの一括削除は全件削除になるので受け付けない ----
+        mockMvc.perform(post("/api/books/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{}}"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(bulkService, Mockito.never()).delete(Mockito.any());
+
+        // ---- ③ 置き換える著者名は BookRequest と同じく 80 文字まで ----
+        mockMvc.perform(post("/api/books/bulk/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"author\":\"Taro\"},\"author\":\"" + "あ".repeat(81) + "\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.author").exists());
+    }
 }
@@ -0,0 +1,96 @@
+package com.example.demo.web;
+
+import com.example.demo.domain.Book;
+import com.example.demo.domain.BookChange;
+import com.example.demo.service.BookChangedEvent;
+import com.example.demo.service.CacheInvalidationBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+// BookResponseCache の単体テスト（Spring は起動しない）
+class BookResponseCacheTest {
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+
+    private static Book book(long id, LocalDateTime updatedAt) {
+        Book b = new Book();
+        b.setId(id);
+        b.setTitle("title" + id);
+        b.setAuthor("author");
+        b.setPrice(1000);
+        b.setUpdatedAt(updatedAt);
+        return b;
+    }
+
+    @DisplayName("同じ (id, updatedAt, メディアタイプ) なら同じバイト列が返り、更新イベントで捨てられること")
+    @Test
+    void testHitAndInvalidate() {
+        BookResponseCache cache = new BookResponseCache(json, bus, 1024 * 1024);
+        LocalDateTime t = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        byte[] first = cache.bytes(book(1, t), MediaType.APPLICATION_JSON);
+        byte[] second = cache.bytes(book(1, t), MediaType.APPLICATION_JSON);
+        assertSame(first, second);                 // 2 回目はエンコードせずキャッシュから
+        assertEquals(first.length, cache.size());
+
+        // 更新されたら（コミット後のイベント）その Book のエントリはなくなる
+        cache.onChange(new BookChangedEvent(1, BookChange.Type.UPDATED, 1L, book(1, t.plusSeconds(1)), null));
+        assertEquals(0, cache.size());
+    }
+
+    @DisplayName("合計バイト数の上限を超えると、最も使われていないエントリから捨てられること")
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        LocalDateTime t = LocalDateTime.of(2024, 1, 1, 0, 0);
+        int oneEntry = new BookResponseCache(json, bus, 1024).bytes(book(1, t), MediaType.APPLICATION_JSON).length;
+
+        // ちょうど 2 件分の上限
+        BookResponseCache cache = new BookResponseCache(json, bus, oneEntry * 2L);
+        byte[] b1 = cache.bytes(book(1, t), MediaType.APPLICATION_JSON);
+        byte[] b2 = cache.bytes(book(2, t), MediaType.APPLICATION_JSON);
+        cache.bytes(book(1, t), MediaType.APPLICATION_JSON);      // 1 を最近使ったことにする
+        byte[] b3 = cache.bytes(book(3, t), MediaType.APPLICATION_JSON);      // → 2 が捨てられる
+
+        assertTrue(cache.size() <= oneEntry * 2L);
+        // 最近使った 1 と、追加したばかりの 3 はキャッシュのまま（同じ配列が返る）
+        assertSame(b1, cache.bytes(book(1, t), MediaType.APPLICATION_JSON));
+        assertSame(b3, cache.bytes(book(3, t), MediaType.APPLICATION_JSON));
+        // 2 は捨てられているので、エンコードし直した別の配列が返る（最後に確かめる。ここで 1 が押し出される）
+        byte[] again = cache.bytes(book(2, t), MediaType.APPLICATION_JSON);
+        assertNotSame(b2, again);
+        assertArrayEquals(b2, again);
+    }
+
+    @DisplayName("Accept ヘッダから JSON / CBOR / Smile が選ばれること")
+    @Test
+    void testNegotiate() {
+        BookResponseCache cache = new BookResponseCache(json, bus, 1024);
+        assertEquals(MediaType.APPLICATION_JSON, cache.negotiate(null));
+        assertEquals(MediaType.APPLICATION_JSON, cache.negotiate("*/*"));
+        assertEquals(BookResponseCache.CBOR, cache.negotiate("application/cbor"));
+        assertEquals(BookResponseCache.SMILE, cache.negotiate("application/x-jackson-smile, application/json;q=0.5"));
+    }
+
+    @DisplayName("Accept の q 値が並び順より優先され、q=0 の形式は選ばれないこと")
+    @Test
+    void testNegotiateByQuality() {
+        BookResponseCache cache = new BookResponseCache(json, bus, 1024);
+        // 先に書かれていても q 値が低ければ後回し
+        assertEquals(MediaType.APPLICATION_JSON, cache.negotiate("application/cbor;q=0.1, application/json"));
+        assertEquals(BookResponseCache.SMILE,
+                cache.negotiate("application/json;q=0.5, application/cbor;q=0.8, application/x-jackson-smile;q=0.9"));
+        // 同じ q 値なら具体的なものが先
+        assertEquals(BookResponseCache.CBOR, cache.negotiate("*/*, application/cbor"));
+        // q=0 は除外（*/* でも JSON は選ばない）
+        assertEquals(BookResponseCache.CBOR, cache.negotiate("application/json;q=0, */*"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.web;
+
+import com.example.demo.config.SecurityConfig;
+import com.example.demo.service.ContinuousRecording;
+import com.example.demo.service.JfrSummarizer;
+import com.example.demo.service.JfrSummary;
+import com.example.demo.service.RecordingDisabledException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// /admin/jfr のテスト（SecurityConfig の認可設定も含めて確認する）
+// ・ROLE_USER は 403、ROLE_ADMIN は書き出し・ダウンロードができること
+// ・記録が無効なインスタンスでは 503 になること
+@WebMvcTest(JfrAdminController.class)
+@Import(SecurityConfig.class)
+class JfrAdminControllerTest {
+
+    private static final String DUMP_NAME = "book-manager-20240101-090000.jfr";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContinuousRecording recording;
+
+    @MockBean
+    private JfrSummarizer summarizer;
+
+    @TempDir
+    Path dir;
+
+    @DisplayName("ROLE_USER のセッションでは /admin/** が 403 になり、書き出しも行われないこと")
+    @Test
+    @WithMockUser(roles = "USER")
+    void testUserIsForbidden() throws Exception {
+        mockMvc.perform(post("/admin/jfr/dump").with(csrf()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/admin/jfr/dumps/" + DUMP_NAME))
+                .andExpect(status().isForbidden());
+
+        Mockito.verify(recording, Mockito.never()).dump(Mockito.any());
+        Mockito.verify(recording, Mockito.never()).findDump(Mockito.any());
+    }
+
+    @DisplayName("ROLE_ADMIN は直近の記録を書き出して要約を受け取り、そのファイルをダウンロードできること")
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testAdminCanDumpAndDownload() throws Exception {
+        Path file = Files.write(dir.resolve(DUMP_NAME), new byte[]{1, 2, 3, 4});
+        JfrSummary summary = new JfrSummary(Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-01-01T00:05:00Z"),
+                42, List.of(new JfrSummary.Entry("byte[]", 1024)), List.of(), List.of(), List.of());
+        Mockito.when(recording.isRecording()).thenReturn(true);
+        Mockito.when(recording.dump(Duration.ofMinutes(5))).thenReturn(file);
+        Mockito.when(summarizer.summarize(file, 10)).thenReturn(summary);
+        Mockito.when(recording.findDump(DUMP_NAME)).thenReturn(file);
+
+        mockMvc.perform(post("/admin/jfr/dump").param("minutes", "5").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(DUMP_NAME))
+                .andExpect(jsonPath("$.size").value(4))
+                .andExpect(jsonPath("$.summary.eventCount").value(42))
+                .andExpect(jsonPath("$.summary.allocationSites[0].name").value("byte[]"));
+
+        mockMvc.perform(get("/admin/jfr/dumps/" + DUMP_NAME))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString(DUMP_NAME)))
+                .andExpect(content().bytes(new byte[]{1, 2, 3, 4}));
+    }
+
+    @DisplayName("POST は CSRF トークンがなければ ROLE_ADMIN でも 403 になること")
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testDumpRequiresCsrfToken() throws Exception {
+        mockMvc.perform(post("/admin/jfr/dump"))
+                .andExpect(status().isForbidden());
+
+        Mockito.verify(recording, Mockito.never()).dump(Mockito.any());
+    }
+
+    @DisplayName("記録が無効なインスタンスでは 404 ではなく 503 が返ること")
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testDumpWhenRecordingDisabled() throws Exception {
+        Mockito.when(recording.isRecording()).thenReturn(false);
+
+        mockMvc.perform(post("/admin/jfr/dump").with(csrf()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value(new RecordingDisabledException().getMessage()));
+
+        Mockito.verify(recording, Mockito.never()).dump(Mockito.any());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.web;
+
+import com.example.demo.config.SecurityConfig;
+import com.example.demo.domain.Book;
+import com.example.demo.service.BookService;
+import com.example.demo.service.DatabaseUnavailableException;
+import com.example.demo.web.dto.BookResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// ホーム画面（/home）のサーバー側描画のテスト
+// ・テンプレート（index.html）まで実際に描画して、HTML の中身を確認する
+@WebMvcTest(LoginController.class)
+@Import(SecurityConfig.class)
+@WithMockUser
+class LoginControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookService service;
+
+    @DisplayName("/home で最初のページの行が描画され、ページ情報が initialState として埋め込まれること")
+    @Test
+    void testHomeRendersFirstPage() throws Exception {
+        Book b = new Book();
+        b.setId(42L);
+        b.setTitle("Effective Java");
+        b.setAuthor("Joshua Bloch");
+        b.setPrice(5500);
+        b.setCreatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        PageRequest first = PageRequest.of(0, LoginController.HOME_PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Mockito.when(service.list(null, first)).thenReturn(new PageImpl<>(List.of(b), first, 12));
+
+        mockMvc.perform(get("/home"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attribute("books", List.of(BookResponse.of(b))))
+                // 行がサーバー側で描画されている
+                .andExpect(content().string(containsString("<td>Effective Java</td>")))
+                .andExpect(content().string(containsString("2024/1/2 3:04:05")))
+                // 画面の JS が最初の GET /api/books を省略するための初期状態
+                .andExpect(content().string(containsString("\"sort\":\"createdAt,desc\"")))
+                .andExpect(content().string(containsString("\"totalPages\":2")))
+                .andExpect(content().string(containsString("\"totalElements\":12")));
+    }
+
+    @DisplayName("DB が使えないときは空の表で描画し、最初の読み込みを画面の JS に任せること")
+    @Test
+    void testHomeFallsBackWhenDatabaseUnavailable() throws Exception {
+        Mockito.when(service.list(Mockito.any(), Mockito.any()))
+                .thenThrow(new DatabaseUnavailableException("Database is unavailable (circuit open)", null, null));
+
+        mockMvc.perform(get("/home"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attributeDoesNotExist("books", "initialState"))
+                .andExpect(content().string(containsString("const initialState = null")))
+                .andExpect(content().string(not(containsString("\"totalElements\""))));
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.demo.web;
+
+import com.example.demo.config.WebConfig;
+import com.example.demo.domain.Book;
+import com.example.demo.service.BookBulkService;
+import com.example.demo.service.BookCreateBatcher;
+import com.example.demo.service.BookService;
+import com.example.demo.service.CacheInvalidationBus;
+import com.example.demo.service.CatalogStatistics;
+import com.example.demo.service.DbGuard;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// レスポンスの形式（JSON / CBOR / Smile、通常 / コンパクト表示）ごとの出力を確認する
+// ・CBOR / Smile のコンバータは WebConfig のもの（Spring Boot の ObjectMapper の設定を引き継ぐ）
+// ・GET /api/books/{id} は本物の BookResponseCache を通す（Accept の解釈とエンコード済みバイト列）
+// ・サイズや速度の比較は負荷試験ツールの wire コマンドで行う（src/loadTest）
+@WebMvcTest(BookController.class)
+@Import({CancellableQueries.class, WebConfig.class, BookResponseCache.class})
+@WithMockUser
+class WireFormatTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private BookService service;
+
+    @MockBean
+    private BookChangeStream changeStream;
+
+    @MockBean
+    private CatalogStatistics statistics;
+
+    @MockBean
+    private CacheInvalidationBus cacheBus;
+
+    @MockBean
+    private BookBulkService bulkService;
+
+    @MockBean
+    private DbGuard db;
+
+    @MockBean
+    private BookCreateBatcher createBatcher;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(db.withCancellation(Mockito.any(), Mockito.any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+
+        Book b = new Book();
+        b.setId(1L);
+        b.setTitle("Spring Boot 実践入門");
+        b.setAuthor("山田太郎");
+        b.setPrice(3200);
+        b.setCreatedAt(CREATED);
+        b.setUpdatedAt(CREATED);
+        Mockito.when(service.list(Mockito.any(), Mockito.any()))
+                .thenReturn(new PageImpl<>(List.of(b), PageRequest.of(0, 20), 1));
+        Mockito.when(service.get(1L)).thenReturn(b);
+    }
+
+    @DisplayName("Accept: application/cbor で CBOR が返り、日時は JSON と同じ ISO 文字列であること")
+    @Test
+    void testCbor() throws Exception {
+        MvcResult res = fetch("/api/books", MediaType.APPLICATION_CBOR);
+
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, res.getResponse().getContentType());
+        JsonNode body = objectMapper.copyWith(new CBORFactory()).readTree(res.getResponse().getContentAsByteArray());
+        assertEquals("Spring Boot 実践入門", body.at("/content/0/title").asText());
+        assertEquals("2024-01-01T09:00:00", body.at("/content/0/createdAt").asText());
+    }
+
+    @DisplayName("Accept: application/x-jackson-smile で Smile が返り、日時は JSON と同じ ISO 文字列であること")
+    @Test
+    void testSmile() throws Exception {
+        MvcResult res = fetch("/api/books", SMILE);
+
+        assertEquals(SMILE.toString(), res.getResponse().getContentType());
+        JsonNode body = objectMapper.copyWith(new SmileFactory()).readTree(res.getResponse().getContentAsByteArray());
+        assertEquals("山田太郎", body.at("/content/0/author").asText());
+        assertEquals("2024-01-01T09:00:00", body.at("/content/0/createdAt").asText());
+    }
+
+    @DisplayName("Accept 未指定なら従来どおり JSON が返ること")
+    @Test
+    void testJsonByDefault() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/books"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content[0].createdAt").value("2024-01-01T09:00:00"));
+    }
+
+    @DisplayName("?view=compact で日時がエポックミリ秒、ページ情報が 4 項目だけになること")
+    @Test
+    void testCompactView() throws Exception {
+        long epochMillis = CREATED.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        MvcResult started = mockMvc.perform(get("/api/books").param("view", "compact"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].createdAt").value(epochMillis))
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.size").value(20))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    @DisplayName("?view=compact と CBOR を組み合わせられること")
+    @Test
+    void testCompactViewAsCbor() throws Exception {
+        MvcResult res = fetch("/api/books?view=compact", MediaType.APPLICATION_CBOR);
+
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, res.getResponse().getContentType());
+        JsonNode body = objectMapper.copyWith(new CBORFactory()).readTree(res.getResponse().getContentAsByteArray());
+        assertEquals(1, body.get("total").asLong());
+        assertEquals(CREATED.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                body.at("/content/0/createdAt").asLong());
+    }
+
+    @DisplayName("GET /api/books/{id} は Accept の q 値に従って形式を選び、Vary: Accept を付けること")
+    @Test
+    void testGetByIdNegotiatesByQuality() throws Exception {
+        // CBOR が先に書かれていても q 値の高い Smile が選ばれる
+        MvcResult res = fetch("/api/books/1", MediaType.parseMediaType("application/cbor;q=0.5"), SMILE);
+
+        assertEquals(SMILE.toString(), res.getResponse().getContentType());
+        assertEquals(HttpHeaders.ACCEPT, res.getResponse().getHeader(HttpHeaders.VARY));
+        JsonNode body = objectMapper.copyWith(new SmileFactory()).readTree(res.getResponse().getContentAsByteArray());
+        assertEquals(1, body.get("id").asLong());
+        assertEquals("2024-01-01T09:00:00", body.get("createdAt").asText());
+    }
+
+    @DisplayName("GET /api/books/{id} の 2 回目はキャッシュ済みの同じバイト列が返ること")
+    @Test
+    void testGetByIdFromCache() throws Exception {
+        byte[] first = fetch("/api/books/1", MediaType.APPLICATION_JSON).getResponse().getContentAsByteArray();
+        MvcResult second = fetch("/api/books/1", MediaType.APPLICATION_JSON);
+
+        assertArrayEquals(first, second.getResponse().getContentAsByteArray());
+        assertEquals(HttpHeaders.ACCEPT, second.getResponse().getHeader(HttpHeaders.VARY));
+        JsonNode body = objectMapper.readTree(first);
+        assertEquals("Spring Boot 実践入門", body.get("title").asText());
+    }
+
+    // 非同期の読み取り系を Accept 付きで呼び出し、ディスパッチ後の結果を返す
+    private MvcResult fetch(String url, MediaType... accept) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).accept(accept))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}